@@ -0,0 +1,105 @@
+package com.unicornemporium.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Endpoint latency, repository latency and Hibernate statistics come from Spring Boot's
+// Micrometer auto-configuration (see application.properties); this adds SQL statements per request.
+// Streamed responses (StreamingResponseBody) run their queries on an async executor thread, so
+// their count is taken around that body as well and recorded once the body has finished.
+@Configuration
+public class MetricsConfig {
+
+    // Statements of an async request issued on the request thread, before the body was handed off
+    private static final String REQUEST_THREAD_STATEMENTS = MetricsConfig.class.getName() + ".requestThreadStatements";
+
+    private final Map<String, DistributionSummary> summaries = new ConcurrentHashMap<>();
+
+    @Bean
+    public SqlStatementCounter sqlStatementCounter() {
+        return new SqlStatementCounter();
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer sqlStatementCounterCustomizer(SqlStatementCounter sqlStatementCounter) {
+        return hibernateProperties -> hibernateProperties.put(AvailableSettings.STATEMENT_INSPECTOR, sqlStatementCounter);
+    }
+
+    @Bean
+    public OncePerRequestFilter sqlStatementsPerRequestFilter(MeterRegistry meterRegistry) {
+        return new OncePerRequestFilter() {
+            @Override
+            protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                            FilterChain filterChain) throws ServletException, IOException {
+                SqlStatementCounter.reset();
+                try {
+                    filterChain.doFilter(request, response);
+                } finally {
+                    // Async requests are recorded when their body completes
+                    if (!request.isAsyncStarted()) {
+                        record(meterRegistry, request, SqlStatementCounter.current());
+                    }
+                }
+            }
+        };
+    }
+
+    @Bean
+    public WebMvcConfigurer sqlStatementsPerAsyncRequest(MeterRegistry meterRegistry) {
+        CallableProcessingInterceptor interceptor = new CallableProcessingInterceptor() {
+            @Override
+            public <T> void beforeConcurrentHandling(NativeWebRequest request, Callable<T> task) {
+                request.setAttribute(REQUEST_THREAD_STATEMENTS, SqlStatementCounter.current(),
+                        RequestAttributes.SCOPE_REQUEST);
+            }
+
+            @Override
+            public <T> void preProcess(NativeWebRequest request, Callable<T> task) {
+                SqlStatementCounter.reset();
+            }
+
+            @Override
+            public <T> void postProcess(NativeWebRequest request, Callable<T> task, Object concurrentResult) {
+                Object requestThread = request.getAttribute(REQUEST_THREAD_STATEMENTS, RequestAttributes.SCOPE_REQUEST);
+                int statements = (requestThread instanceof Integer count ? count : 0) + SqlStatementCounter.current();
+                record(meterRegistry, request.getNativeRequest(HttpServletRequest.class), statements);
+            }
+        };
+        return new WebMvcConfigurer() {
+            @Override
+            public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+                configurer.registerCallableInterceptors(interceptor);
+            }
+        };
+    }
+
+    private void record(MeterRegistry meterRegistry, HttpServletRequest request, int statements) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+        summaries.computeIfAbsent(uri, key -> DistributionSummary.builder("http.server.sql.statements")
+                        .description("SQL statements executed per request")
+                        .tag("uri", key)
+                        .register(meterRegistry))
+                .record(statements);
+    }
+}
@@ -0,0 +1,10 @@
+package com.unicornemporium.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+// Background jobs, such as the periodic inventory flush.
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -0,0 +1,24 @@
+package com.unicornemporium.config;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+// Counts the SQL statements Hibernate prepares on the current thread, so the statements
+// issued while serving one request can be recorded when it completes.
+public class SqlStatementCounter implements StatementInspector {
+    
+    private static final ThreadLocal<int[]> COUNT = ThreadLocal.withInitial(() -> new int[1]);
+
+    @Override
+    public String inspect(String sql) {
+        COUNT.get()[0]++;
+        return sql;
+    }
+    
+    static void reset() {
+        COUNT.get()[0] = 0;
+    }
+    
+    static int current() {
+        return COUNT.get()[0];
+    }
+}
@@ -0,0 +1,25 @@
+package com.unicornemporium.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.unicornemporium.service.WireFormat;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+// CBOR and Smile converters sharing the application's ObjectMapper configuration, so requests
+// and responses can use Content-Type / Accept application/cbor or application/x-jackson-smile
+// wherever JSON is accepted. Spring Boot puts them in place of its default converters of the same type.
+@Configuration
+public class WireFormatConfig {
+
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(ObjectMapper objectMapper) {
+        return new MappingJackson2CborHttpMessageConverter(WireFormat.CBOR.mapper(objectMapper));
+    }
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(ObjectMapper objectMapper) {
+        return new MappingJackson2SmileHttpMessageConverter(WireFormat.SMILE.mapper(objectMapper));
+    }
+}
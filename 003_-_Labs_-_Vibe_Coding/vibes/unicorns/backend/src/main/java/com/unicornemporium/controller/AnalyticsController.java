@@ -0,0 +1,22 @@
+package com.unicornemporium.controller;
+
+import com.unicornemporium.dto.SalesReport;
+import com.unicornemporium.service.SalesAnalyticsService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/analytics")
+public class AnalyticsController {
+    
+    private final SalesAnalyticsService salesAnalyticsService;
+
+    public AnalyticsController(SalesAnalyticsService salesAnalyticsService) {
+        this.salesAnalyticsService = salesAnalyticsService;
+    }
+    
+    @GetMapping("/sales")
+    public ResponseEntity<SalesReport> getSalesReport(@RequestParam(defaultValue = "30") int days) {
+        return ResponseEntity.ok(salesAnalyticsService.getReport(days));
+    }
+}
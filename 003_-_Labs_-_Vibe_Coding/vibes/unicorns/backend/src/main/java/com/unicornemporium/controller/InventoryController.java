@@ -0,0 +1,38 @@
+package com.unicornemporium.controller;
+
+import com.unicornemporium.dto.StockLevel;
+import com.unicornemporium.service.InventoryService;
+import com.unicornemporium.service.ProductService;
+import jakarta.validation.Valid;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/inventory")
+public class InventoryController {
+    
+    private final InventoryService inventoryService;
+    private final ProductService productService;
+
+    public InventoryController(InventoryService inventoryService, ProductService productService) {
+        this.inventoryService = inventoryService;
+        this.productService = productService;
+    }
+    
+    @GetMapping("/{productId}")
+    public ResponseEntity<StockLevel> getStock(@PathVariable Long productId) {
+        if (productService.getProductById(productId).isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(new StockLevel(productId, inventoryService.getAvailable(productId).orElse(null)));
+    }
+    
+    @PutMapping("/{productId}")
+    public ResponseEntity<StockLevel> setStock(@PathVariable Long productId, @Valid @RequestBody StockLevel stockLevel) {
+        if (productService.getProductById(productId).isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        inventoryService.setStock(productId, stockLevel.getAvailable());
+        return ResponseEntity.ok(new StockLevel(productId, inventoryService.getAvailable(productId).orElse(null)));
+    }
+}
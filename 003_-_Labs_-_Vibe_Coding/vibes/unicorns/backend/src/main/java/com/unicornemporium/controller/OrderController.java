@@ -1,46 +1,153 @@
 package com.unicornemporium.controller;
 
+import com.unicornemporium.dto.BulkStatusTransitionRequest;
+import com.unicornemporium.dto.BulkStatusTransitionResult;
+import com.unicornemporium.dto.OrderPage;
+import com.unicornemporium.dto.OrderReceipt;
 import com.unicornemporium.dto.OrderRequest;
 import com.unicornemporium.dto.OrderResponse;
-import com.unicornemporium.model.Order;
+import com.unicornemporium.dto.OrderView;
+import com.unicornemporium.dto.StatusTransitionRequest;
+import com.unicornemporium.service.IdempotentOrderService;
+import com.unicornemporium.service.OrderExportService;
+import com.unicornemporium.service.OrderIngestService;
 import com.unicornemporium.service.OrderService;
+import com.unicornemporium.service.WriteBehindOrderService;
 import jakarta.validation.Valid;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.util.List;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/orders")
 public class OrderController {
     
     private final OrderService orderService;
+    private final OrderIngestService orderIngestService;
+    private final IdempotentOrderService idempotentOrderService;
+    private final OrderExportService orderExportService;
+    // Present only when write-behind mode is enabled
+    private final WriteBehindOrderService writeBehindOrderService;
 
-    public OrderController(OrderService orderService) {
+    public OrderController(OrderService orderService, OrderIngestService orderIngestService,
+                           IdempotentOrderService idempotentOrderService, OrderExportService orderExportService,
+                           ObjectProvider<WriteBehindOrderService> writeBehindOrderService) {
         this.orderService = orderService;
+        this.orderIngestService = orderIngestService;
+        this.idempotentOrderService = idempotentOrderService;
+        this.orderExportService = orderExportService;
+        this.writeBehindOrderService = writeBehindOrderService.getIfAvailable();
     }
     
+    // 201 with the persisted order, or 202 with a receipt when write-behind mode is enabled.
+    // Requests repeating an Idempotency-Key get the original response.
     @PostMapping
-    public ResponseEntity<OrderResponse> createOrder(@Valid @RequestBody OrderRequest orderRequest) {
-        OrderResponse response = orderService.createOrder(orderRequest);
+    public ResponseEntity<?> createOrder(@Valid @RequestBody OrderRequest orderRequest,
+                                         @RequestHeader(name = "Idempotency-Key", required = false) String idempotencyKey) {
+        if (writeBehindOrderService != null) {
+            OrderReceipt receipt = idempotencyKey == null
+                    ? writeBehindOrderService.acceptOrder(orderRequest)
+                    : writeBehindOrderService.acceptOrder(orderRequest, idempotencyKey);
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(receipt);
+        }
+        OrderResponse response = idempotencyKey == null
+                ? orderService.createOrder(orderRequest)
+                : idempotentOrderService.createOrder(orderRequest, idempotencyKey);
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
     
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> createOrders(InputStream body) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(out -> orderIngestService.ingest(body, out));
+    }
+    
     @GetMapping("/{id}")
-    public ResponseEntity<Order> getOrderById(@PathVariable Long id) {
+    public ResponseEntity<OrderView> getOrderById(@PathVariable Long id) {
         return orderService.getOrderById(id)
                 .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
     
+    // 409 if the transition is not allowed or the order is no longer at the given version.
+    @PutMapping("/{id}/status")
+    public ResponseEntity<OrderResponse> transitionStatus(@PathVariable Long id,
+                                                          @Valid @RequestBody StatusTransitionRequest transition) {
+        return orderService.transitionStatus(id, transition.getStatus(), transition.getVersion())
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+    
+    @PutMapping("/status")
+    public ResponseEntity<BulkStatusTransitionResult> transitionStatuses(
+            @Valid @RequestBody BulkStatusTransitionRequest transition) {
+        return ResponseEntity.ok(orderService.transitionStatuses(transition.getOrderIds(), transition.getStatus()));
+    }
+    
+    // 200 with the order once it has been written to the database, 202 while it is still journaled.
+    @GetMapping("/receipts/{receiptId}")
+    public ResponseEntity<OrderView> getOrderByReceipt(@PathVariable long receiptId) {
+        if (writeBehindOrderService == null) {
+            return ResponseEntity.notFound().build();
+        }
+        Optional<OrderView> order = writeBehindOrderService.getOrderByReceipt(receiptId);
+        if (order.isPresent()) {
+            return ResponseEntity.ok(order.get());
+        }
+        if (writeBehindOrderService.isPending(receiptId)) {
+            return ResponseEntity.status(HttpStatus.ACCEPTED).build();
+        }
+        return ResponseEntity.notFound().build();
+    }
+    
     @GetMapping
-    public ResponseEntity<List<Order>> getAllOrders() {
-        return ResponseEntity.ok(orderService.getAllOrders());
+    public ResponseEntity<OrderPage> getAllOrders(@RequestParam(required = false) Long after,
+                                                  @RequestParam(defaultValue = "50") int limit) {
+        return ResponseEntity.ok(orderService.getOrdersPage(after, limit));
+    }
+    
+    @GetMapping("/stream")
+    public ResponseEntity<StreamingResponseBody> streamAllOrders() {
+        StreamingResponseBody body = orderService::writeAllOrders;
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body);
+    }
+    
+    // format=csv or format=columnar; see OrderExportService
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportOrders(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "csv") String format) {
+        return switch (format) {
+            case "csv" -> ResponseEntity.ok()
+                    .contentType(new MediaType("text", "csv", StandardCharsets.UTF_8))
+                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"orders.csv\"")
+                    .body(out -> orderExportService.writeCsv(from, to, out));
+            case "columnar" -> ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"orders.ucol\"")
+                    .body(out -> orderExportService.writeColumnar(from, to, out));
+            default -> ResponseEntity.badRequest().build();
+        };
     }
     
     @GetMapping("/email/{email}")
-    public ResponseEntity<List<Order>> getOrdersByEmail(@PathVariable String email) {
-        return ResponseEntity.ok(orderService.getOrdersByEmail(email));
+    public ResponseEntity<OrderPage> getOrdersByEmail(@PathVariable String email,
+                                                      @RequestParam(defaultValue = "0") int page,
+                                                      @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(orderService.getOrdersByEmail(email, page, size));
     }
 }
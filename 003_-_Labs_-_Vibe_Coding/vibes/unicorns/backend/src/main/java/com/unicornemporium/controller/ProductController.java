@@ -1,11 +1,17 @@
 package com.unicornemporium.controller;
 
+import com.unicornemporium.dto.ProductQueryResult;
 import com.unicornemporium.model.Product;
+import com.unicornemporium.service.CatalogPayload;
 import com.unicornemporium.service.ProductService;
+import com.unicornemporium.service.WireFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.math.BigDecimal;
 import java.util.List;
+import java.util.Locale;
 
 @RestController
 @RequestMapping("/api/products")
@@ -18,24 +24,93 @@ public class ProductController {
     }
     
     @GetMapping
-    public ResponseEntity<List<Product>> getAllProducts() {
-        return ResponseEntity.ok(productService.getAllProducts());
+    public ResponseEntity<byte[]> getAllProducts(
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return encoded(productService.getAllProductsPayload(WireFormat.forAccept(accept)), acceptEncoding);
     }
     
     @GetMapping("/{id}")
-    public ResponseEntity<Product> getProductById(@PathVariable Long id) {
-        return productService.getProductById(id)
-                .map(ResponseEntity::ok)
+    public ResponseEntity<byte[]> getProductById(@PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return productService.getProductPayloadById(id, WireFormat.forAccept(accept))
+                .map(payload -> encoded(payload, acceptEncoding))
                 .orElse(ResponseEntity.notFound().build());
     }
     
     @GetMapping("/category/{category}")
-    public ResponseEntity<List<Product>> getProductsByCategory(@PathVariable String category) {
-        return ResponseEntity.ok(productService.getProductsByCategory(category));
+    public ResponseEntity<byte[]> getProductsByCategory(@PathVariable String category,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return encoded(productService.getProductsPayloadByCategory(category, WireFormat.forAccept(accept)), acceptEncoding);
+    }
+    
+    @GetMapping("/search")
+    public ResponseEntity<List<Product>> searchProducts(@RequestParam("q") String query,
+                                                        @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(productService.searchProducts(query, limit));
+    }
+    
+    @GetMapping("/query")
+    public ResponseEntity<ProductQueryResult> queryProducts(
+            @RequestParam(name = "category", defaultValue = "") List<String> categories,
+            @RequestParam(required = false) BigDecimal minPrice,
+            @RequestParam(required = false) BigDecimal maxPrice,
+            @RequestParam(name = "feature", defaultValue = "") List<String> features) {
+        return ResponseEntity.ok(productService.queryProducts(categories, minPrice, maxPrice, features));
     }
     
     @PostMapping
     public ResponseEntity<Product> createProduct(@RequestBody Product product) {
         return ResponseEntity.ok(productService.createProduct(product));
     }
+    
+    // Spring answers If-None-Match / If-Modified-Since with 304 from the ETag and Last-Modified set here.
+    // Payloads come pre-encoded in the format picked from Accept (JSON, CBOR or Smile).
+    private ResponseEntity<byte[]> encoded(CatalogPayload payload, String acceptEncoding) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(payload.getFormat().getMediaType())
+                .lastModified(payload.getLastModified())
+                .varyBy(HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING);
+        if (acceptsGzip(acceptEncoding)) {
+            return response.eTag(payload.getEtag() + "-gzip")
+                    .header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                    .body(payload.getGzip());
+        }
+        return response.eTag(payload.getEtag()).body(payload.getBody());
+    }
+    
+    // gzip is acceptable when listed (or covered by "*") with a non-zero q-value; "gzip;q=0" refuses it.
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        Double gzip = null;
+        Double wildcard = null;
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.split(";");
+            String name = parts[0].trim().toLowerCase(Locale.ROOT);
+            double quality = 1.0;
+            for (int i = 1; i < parts.length; i++) {
+                String parameter = parts[i].trim();
+                if (parameter.regionMatches(true, 0, "q=", 0, 2)) {
+                    try {
+                        quality = Double.parseDouble(parameter.substring(2).trim());
+                    } catch (NumberFormatException e) {
+                        quality = 0;
+                    }
+                }
+            }
+            if (name.equals("gzip") || name.equals("x-gzip")) {
+                gzip = quality;
+            } else if (name.equals("*")) {
+                wildcard = quality;
+            }
+        }
+        if (gzip != null) {
+            return gzip > 0;
+        }
+        return wildcard != null && wildcard > 0;
+    }
 }
@@ -0,0 +1,51 @@
+package com.unicornemporium.dto;
+
+import java.util.List;
+
+public class BulkOrderResult {
+    
+    private int line;
+    private Long orderId;
+    private List<String> errors;
+
+    public BulkOrderResult() {
+    }
+
+    public BulkOrderResult(int line, Long orderId, List<String> errors) {
+        this.line = line;
+        this.orderId = orderId;
+        this.errors = errors;
+    }
+    
+    public static BulkOrderResult created(int line, Long orderId) {
+        return new BulkOrderResult(line, orderId, List.of());
+    }
+    
+    public static BulkOrderResult rejected(int line, List<String> errors) {
+        return new BulkOrderResult(line, null, errors);
+    }
+
+    public int getLine() {
+        return line;
+    }
+
+    public void setLine(int line) {
+        this.line = line;
+    }
+
+    public Long getOrderId() {
+        return orderId;
+    }
+
+    public void setOrderId(Long orderId) {
+        this.orderId = orderId;
+    }
+
+    public List<String> getErrors() {
+        return errors;
+    }
+
+    public void setErrors(List<String> errors) {
+        this.errors = errors;
+    }
+}
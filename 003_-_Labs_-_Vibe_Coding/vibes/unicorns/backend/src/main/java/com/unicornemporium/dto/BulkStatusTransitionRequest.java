@@ -0,0 +1,42 @@
+package com.unicornemporium.dto;
+
+import com.unicornemporium.model.Order;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public class BulkStatusTransitionRequest {
+    
+    @NotEmpty(message = "At least one order id is required")
+    @Size(max = 10000, message = "At most 10000 orders can be transitioned at once")
+    private List<@NotNull Long> orderIds;
+    
+    @NotNull(message = "Status is required")
+    private Order.OrderStatus status;
+
+    public BulkStatusTransitionRequest() {
+    }
+
+    public BulkStatusTransitionRequest(List<Long> orderIds, Order.OrderStatus status) {
+        this.orderIds = orderIds;
+        this.status = status;
+    }
+
+    public List<Long> getOrderIds() {
+        return orderIds;
+    }
+
+    public void setOrderIds(List<Long> orderIds) {
+        this.orderIds = orderIds;
+    }
+
+    public Order.OrderStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(Order.OrderStatus status) {
+        this.status = status;
+    }
+}
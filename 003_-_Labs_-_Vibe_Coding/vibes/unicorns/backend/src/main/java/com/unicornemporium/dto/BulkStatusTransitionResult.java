@@ -0,0 +1,34 @@
+package com.unicornemporium.dto;
+
+import java.util.List;
+
+public class BulkStatusTransitionResult {
+    
+    private int updated;
+    // Orders that do not exist or cannot move to the requested status
+    private List<Long> rejected;
+
+    public BulkStatusTransitionResult() {
+    }
+
+    public BulkStatusTransitionResult(int updated, List<Long> rejected) {
+        this.updated = updated;
+        this.rejected = rejected;
+    }
+
+    public int getUpdated() {
+        return updated;
+    }
+
+    public void setUpdated(int updated) {
+        this.updated = updated;
+    }
+
+    public List<Long> getRejected() {
+        return rejected;
+    }
+
+    public void setRejected(List<Long> rejected) {
+        this.rejected = rejected;
+    }
+}
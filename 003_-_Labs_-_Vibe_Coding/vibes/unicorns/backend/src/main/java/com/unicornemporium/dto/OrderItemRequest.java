@@ -1,7 +1,10 @@
 package com.unicornemporium.dto;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.unicornemporium.model.Cents;
 import jakarta.validation.constraints.Min;
-import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 
 public class OrderItemRequest {
@@ -9,25 +12,27 @@ public class OrderItemRequest {
     @NotNull(message = "Product ID is required")
     private Long productId;
     
-    @NotBlank(message = "Product name is required")
+    // Ignored: the name is taken from the catalog.
     private String productName;
     
     @NotNull(message = "Quantity is required")
     @Min(value = 1, message = "Quantity must be at least 1")
     private Integer quantity;
     
-    @NotNull(message = "Price is required")
-    @Min(value = 0, message = "Price must be positive")
-    private Double price;
+    // Ignored: the price is taken from the catalog.
+    @JsonProperty("price")
+    @JsonSerialize(using = Cents.Serializer.class)
+    @JsonDeserialize(using = Cents.Deserializer.class)
+    private Long priceCents;
 
     public OrderItemRequest() {
     }
 
-    public OrderItemRequest(Long productId, String productName, Integer quantity, Double price) {
+    public OrderItemRequest(Long productId, String productName, Integer quantity, Long priceCents) {
         this.productId = productId;
         this.productName = productName;
         this.quantity = quantity;
-        this.price = price;
+        this.priceCents = priceCents;
     }
 
     public Long getProductId() {
@@ -54,11 +59,11 @@ public class OrderItemRequest {
         this.quantity = quantity;
     }
 
-    public Double getPrice() {
-        return price;
+    public Long getPriceCents() {
+        return priceCents;
     }
 
-    public void setPrice(Double price) {
-        this.price = price;
+    public void setPriceCents(Long priceCents) {
+        this.priceCents = priceCents;
     }
 }
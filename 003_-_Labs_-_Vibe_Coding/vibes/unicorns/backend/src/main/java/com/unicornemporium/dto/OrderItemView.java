@@ -0,0 +1,53 @@
+package com.unicornemporium.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.unicornemporium.model.Cents;
+
+// Read-only projection of an order item, built directly by a JPQL constructor expression.
+public class OrderItemView {
+    
+    @JsonIgnore
+    private final Long orderId;
+    private final Long id;
+    private final Long productId;
+    private final String productName;
+    private final Integer quantity;
+    @JsonProperty("price")
+    @JsonSerialize(using = Cents.Serializer.class)
+    private final long priceCents;
+
+    public OrderItemView(Long orderId, Long id, Long productId, String productName, Integer quantity, long priceCents) {
+        this.orderId = orderId;
+        this.id = id;
+        this.productId = productId;
+        this.productName = productName;
+        this.quantity = quantity;
+        this.priceCents = priceCents;
+    }
+
+    public Long getOrderId() {
+        return orderId;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public String getProductName() {
+        return productName;
+    }
+
+    public Integer getQuantity() {
+        return quantity;
+    }
+
+    public long getPriceCents() {
+        return priceCents;
+    }
+}
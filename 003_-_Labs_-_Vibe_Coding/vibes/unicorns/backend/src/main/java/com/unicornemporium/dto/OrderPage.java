@@ -0,0 +1,33 @@
+package com.unicornemporium.dto;
+
+import java.util.List;
+
+public class OrderPage {
+    
+    private List<OrderView> orders;
+    private Long nextCursor;
+
+    public OrderPage() {
+    }
+
+    public OrderPage(List<OrderView> orders, Long nextCursor) {
+        this.orders = orders;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<OrderView> getOrders() {
+        return orders;
+    }
+
+    public void setOrders(List<OrderView> orders) {
+        this.orders = orders;
+    }
+
+    public Long getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(Long nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+}
@@ -0,0 +1,62 @@
+package com.unicornemporium.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.unicornemporium.model.Cents;
+
+import java.time.LocalDateTime;
+
+// Acknowledgement for an order accepted in write-behind mode; the order id is assigned later.
+public class OrderReceipt {
+    
+    private long receiptId;
+    private String customerEmail;
+    @JsonProperty("totalAmount")
+    @JsonSerialize(using = Cents.Serializer.class)
+    @JsonDeserialize(using = Cents.Deserializer.class)
+    private long totalAmountCents;
+    private LocalDateTime orderDate;
+
+    public OrderReceipt() {
+    }
+
+    public OrderReceipt(long receiptId, String customerEmail, long totalAmountCents, LocalDateTime orderDate) {
+        this.receiptId = receiptId;
+        this.customerEmail = customerEmail;
+        this.totalAmountCents = totalAmountCents;
+        this.orderDate = orderDate;
+    }
+
+    public long getReceiptId() {
+        return receiptId;
+    }
+
+    public void setReceiptId(long receiptId) {
+        this.receiptId = receiptId;
+    }
+
+    public String getCustomerEmail() {
+        return customerEmail;
+    }
+
+    public void setCustomerEmail(String customerEmail) {
+        this.customerEmail = customerEmail;
+    }
+
+    public long getTotalAmountCents() {
+        return totalAmountCents;
+    }
+
+    public void setTotalAmountCents(long totalAmountCents) {
+        this.totalAmountCents = totalAmountCents;
+    }
+
+    public LocalDateTime getOrderDate() {
+        return orderDate;
+    }
+
+    public void setOrderDate(LocalDateTime orderDate) {
+        this.orderDate = orderDate;
+    }
+}
@@ -1,30 +1,41 @@
 package com.unicornemporium.dto;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.unicornemporium.model.Cents;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotEmpty;
-import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
 
 import java.util.List;
 
 public class OrderRequest {
     
     @NotBlank(message = "Customer name is required")
+    @Size(max = 255, message = "Customer name must be at most 255 characters")
     private String customerName;
     
     @NotBlank(message = "Customer email is required")
     @Email(message = "Invalid email format")
+    @Size(max = 255, message = "Customer email must be at most 255 characters")
     private String customerEmail;
     
     @NotBlank(message = "Delivery address is required")
+    @Size(max = 500, message = "Delivery address must be at most 500 characters")
     private String deliveryAddress;
     
     @NotBlank(message = "Delivery method is required")
+    @Size(max = 255, message = "Delivery method must be at most 255 characters")
     private String deliveryMethod;
     
-    @NotNull(message = "Total amount is required")
-    private Double totalAmount;
+    // Ignored: the total is computed server-side from catalog prices.
+    @JsonProperty("totalAmount")
+    @JsonSerialize(using = Cents.Serializer.class)
+    @JsonDeserialize(using = Cents.Deserializer.class)
+    private Long totalAmountCents;
     
     @NotEmpty(message = "Order must contain at least one item")
     @Valid
@@ -33,12 +44,12 @@ public class OrderRequest {
     public OrderRequest() {
     }
 
-    public OrderRequest(String customerName, String customerEmail, String deliveryAddress, String deliveryMethod, Double totalAmount, List<OrderItemRequest> items) {
+    public OrderRequest(String customerName, String customerEmail, String deliveryAddress, String deliveryMethod, Long totalAmountCents, List<OrderItemRequest> items) {
         this.customerName = customerName;
         this.customerEmail = customerEmail;
         this.deliveryAddress = deliveryAddress;
         this.deliveryMethod = deliveryMethod;
-        this.totalAmount = totalAmount;
+        this.totalAmountCents = totalAmountCents;
         this.items = items;
     }
 
@@ -74,12 +85,12 @@ public class OrderRequest {
         this.deliveryMethod = deliveryMethod;
     }
 
-    public Double getTotalAmount() {
-        return totalAmount;
+    public Long getTotalAmountCents() {
+        return totalAmountCents;
     }
 
-    public void setTotalAmount(Double totalAmount) {
-        this.totalAmount = totalAmount;
+    public void setTotalAmountCents(Long totalAmountCents) {
+        this.totalAmountCents = totalAmountCents;
     }
 
     public List<OrderItemRequest> getItems() {
@@ -1,5 +1,9 @@
 package com.unicornemporium.dto;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.unicornemporium.model.Cents;
 import com.unicornemporium.model.Order;
 
 import java.time.LocalDateTime;
@@ -11,22 +15,27 @@ public class OrderResponse {
     private String customerEmail;
     private String deliveryAddress;
     private String deliveryMethod;
-    private Double totalAmount;
+    @JsonProperty("totalAmount")
+    @JsonSerialize(using = Cents.Serializer.class)
+    @JsonDeserialize(using = Cents.Deserializer.class)
+    private long totalAmountCents;
     private LocalDateTime orderDate;
     private Order.OrderStatus status;
+    private Long version;
 
     public OrderResponse() {
     }
 
-    public OrderResponse(Long id, String customerName, String customerEmail, String deliveryAddress, String deliveryMethod, Double totalAmount, LocalDateTime orderDate, Order.OrderStatus status) {
+    public OrderResponse(Long id, String customerName, String customerEmail, String deliveryAddress, String deliveryMethod, long totalAmountCents, LocalDateTime orderDate, Order.OrderStatus status, Long version) {
         this.id = id;
         this.customerName = customerName;
         this.customerEmail = customerEmail;
         this.deliveryAddress = deliveryAddress;
         this.deliveryMethod = deliveryMethod;
-        this.totalAmount = totalAmount;
+        this.totalAmountCents = totalAmountCents;
         this.orderDate = orderDate;
         this.status = status;
+        this.version = version;
     }
     
     public static OrderResponse fromOrder(Order order) {
@@ -36,9 +45,10 @@ public class OrderResponse {
             order.getCustomerEmail(),
             order.getDeliveryAddress(),
             order.getDeliveryMethod(),
-            order.getTotalAmount(),
+            order.getTotalAmountCents(),
             order.getOrderDate(),
-            order.getStatus()
+            order.getStatus(),
+            order.getVersion()
         );
     }
 
@@ -82,12 +92,12 @@ public class OrderResponse {
         this.deliveryMethod = deliveryMethod;
     }
 
-    public Double getTotalAmount() {
-        return totalAmount;
+    public long getTotalAmountCents() {
+        return totalAmountCents;
     }
 
-    public void setTotalAmount(Double totalAmount) {
-        this.totalAmount = totalAmount;
+    public void setTotalAmountCents(long totalAmountCents) {
+        this.totalAmountCents = totalAmountCents;
     }
 
     public LocalDateTime getOrderDate() {
@@ -105,4 +115,12 @@ public class OrderResponse {
     public void setStatus(Order.OrderStatus status) {
         this.status = status;
     }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
 }
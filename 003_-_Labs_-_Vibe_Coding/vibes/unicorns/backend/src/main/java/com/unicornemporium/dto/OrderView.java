@@ -0,0 +1,85 @@
+package com.unicornemporium.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.unicornemporium.model.Cents;
+import com.unicornemporium.model.Order;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Read-only projection of an order with its items, serialized with the same JSON shape as the
+// Order entity. The header is built by a JPQL constructor expression and the items are attached
+// from a second query, so reads never create managed entities.
+public class OrderView {
+    
+    private final Long id;
+    private final String customerName;
+    private final String customerEmail;
+    private final String deliveryAddress;
+    private final String deliveryMethod;
+    @JsonProperty("totalAmount")
+    @JsonSerialize(using = Cents.Serializer.class)
+    private final long totalAmountCents;
+    private final LocalDateTime orderDate;
+    private final Order.OrderStatus status;
+    private final Long version;
+    private List<OrderItemView> items = List.of();
+
+    public OrderView(Long id, String customerName, String customerEmail, String deliveryAddress, String deliveryMethod,
+                     long totalAmountCents, LocalDateTime orderDate, Order.OrderStatus status, Long version) {
+        this.id = id;
+        this.customerName = customerName;
+        this.customerEmail = customerEmail;
+        this.deliveryAddress = deliveryAddress;
+        this.deliveryMethod = deliveryMethod;
+        this.totalAmountCents = totalAmountCents;
+        this.orderDate = orderDate;
+        this.status = status;
+        this.version = version;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getCustomerName() {
+        return customerName;
+    }
+
+    public String getCustomerEmail() {
+        return customerEmail;
+    }
+
+    public String getDeliveryAddress() {
+        return deliveryAddress;
+    }
+
+    public String getDeliveryMethod() {
+        return deliveryMethod;
+    }
+
+    public long getTotalAmountCents() {
+        return totalAmountCents;
+    }
+
+    public LocalDateTime getOrderDate() {
+        return orderDate;
+    }
+
+    public Order.OrderStatus getStatus() {
+        return status;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public List<OrderItemView> getItems() {
+        return items;
+    }
+
+    public void setItems(List<OrderItemView> items) {
+        this.items = items;
+    }
+}
@@ -0,0 +1,48 @@
+package com.unicornemporium.dto;
+
+import com.unicornemporium.model.Product;
+
+import java.util.List;
+import java.util.Map;
+
+public class ProductQueryResult {
+    
+    private List<Product> products;
+    // Matches per category under every filter except the category filter
+    private Map<String, Integer> categoryCounts;
+    // Matches per feature under all filters; features without matches are left out
+    private Map<String, Integer> featureCounts;
+
+    public ProductQueryResult() {
+    }
+
+    public ProductQueryResult(List<Product> products, Map<String, Integer> categoryCounts, Map<String, Integer> featureCounts) {
+        this.products = products;
+        this.categoryCounts = categoryCounts;
+        this.featureCounts = featureCounts;
+    }
+
+    public List<Product> getProducts() {
+        return products;
+    }
+
+    public void setProducts(List<Product> products) {
+        this.products = products;
+    }
+
+    public Map<String, Integer> getCategoryCounts() {
+        return categoryCounts;
+    }
+
+    public void setCategoryCounts(Map<String, Integer> categoryCounts) {
+        this.categoryCounts = categoryCounts;
+    }
+
+    public Map<String, Integer> getFeatureCounts() {
+        return featureCounts;
+    }
+
+    public void setFeatureCounts(Map<String, Integer> featureCounts) {
+        this.featureCounts = featureCounts;
+    }
+}
@@ -0,0 +1,75 @@
+package com.unicornemporium.dto;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+public class SalesReport {
+    
+    private long orders;
+    private SalesTotals total;
+    private Map<Long, SalesTotals> byProduct;
+    private Map<String, SalesTotals> byCategory;
+    private Map<LocalDate, SalesTotals> byDay;
+    private Map<String, SalesTotals> byDeliveryMethod;
+
+    public SalesReport() {
+    }
+
+    public SalesReport(long orders, SalesTotals total, Map<Long, SalesTotals> byProduct, Map<String, SalesTotals> byCategory,
+                       Map<LocalDate, SalesTotals> byDay, Map<String, SalesTotals> byDeliveryMethod) {
+        this.orders = orders;
+        this.total = total;
+        this.byProduct = byProduct;
+        this.byCategory = byCategory;
+        this.byDay = byDay;
+        this.byDeliveryMethod = byDeliveryMethod;
+    }
+
+    public long getOrders() {
+        return orders;
+    }
+
+    public void setOrders(long orders) {
+        this.orders = orders;
+    }
+
+    public SalesTotals getTotal() {
+        return total;
+    }
+
+    public void setTotal(SalesTotals total) {
+        this.total = total;
+    }
+
+    public Map<Long, SalesTotals> getByProduct() {
+        return byProduct;
+    }
+
+    public void setByProduct(Map<Long, SalesTotals> byProduct) {
+        this.byProduct = byProduct;
+    }
+
+    public Map<String, SalesTotals> getByCategory() {
+        return byCategory;
+    }
+
+    public void setByCategory(Map<String, SalesTotals> byCategory) {
+        this.byCategory = byCategory;
+    }
+
+    public Map<LocalDate, SalesTotals> getByDay() {
+        return byDay;
+    }
+
+    public void setByDay(Map<LocalDate, SalesTotals> byDay) {
+        this.byDay = byDay;
+    }
+
+    public Map<String, SalesTotals> getByDeliveryMethod() {
+        return byDeliveryMethod;
+    }
+
+    public void setByDeliveryMethod(Map<String, SalesTotals> byDeliveryMethod) {
+        this.byDeliveryMethod = byDeliveryMethod;
+    }
+}
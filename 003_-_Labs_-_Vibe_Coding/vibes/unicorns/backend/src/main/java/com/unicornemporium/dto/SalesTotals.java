@@ -0,0 +1,39 @@
+package com.unicornemporium.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.unicornemporium.model.Cents;
+
+public class SalesTotals {
+    
+    @JsonProperty("revenue")
+    @JsonSerialize(using = Cents.Serializer.class)
+    @JsonDeserialize(using = Cents.Deserializer.class)
+    private long revenueCents;
+    private long units;
+
+    public SalesTotals() {
+    }
+
+    public SalesTotals(long revenueCents, long units) {
+        this.revenueCents = revenueCents;
+        this.units = units;
+    }
+
+    public long getRevenueCents() {
+        return revenueCents;
+    }
+
+    public void setRevenueCents(long revenueCents) {
+        this.revenueCents = revenueCents;
+    }
+
+    public long getUnits() {
+        return units;
+    }
+
+    public void setUnits(long units) {
+        this.units = units;
+    }
+}
@@ -0,0 +1,37 @@
+package com.unicornemporium.dto;
+
+import com.unicornemporium.model.Order;
+import jakarta.validation.constraints.NotNull;
+
+public class StatusTransitionRequest {
+    
+    @NotNull(message = "Status is required")
+    private Order.OrderStatus status;
+    
+    // Optional: when set, the transition is rejected unless the order is still at this version
+    private Long version;
+
+    public StatusTransitionRequest() {
+    }
+
+    public StatusTransitionRequest(Order.OrderStatus status, Long version) {
+        this.status = status;
+        this.version = version;
+    }
+
+    public Order.OrderStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(Order.OrderStatus status) {
+        this.status = status;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+}
@@ -0,0 +1,37 @@
+package com.unicornemporium.dto;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.PositiveOrZero;
+
+public class StockLevel {
+    
+    private Long productId;
+    // Null when the product's stock is not tracked
+    @PositiveOrZero(message = "Stock cannot be negative")
+    @Max(value = Integer.MAX_VALUE, message = "Stock is too large")
+    private Long available;
+
+    public StockLevel() {
+    }
+
+    public StockLevel(Long productId, Long available) {
+        this.productId = productId;
+        this.available = available;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public void setProductId(Long productId) {
+        this.productId = productId;
+    }
+
+    public Long getAvailable() {
+        return available;
+    }
+
+    public void setAvailable(Long available) {
+        this.available = available;
+    }
+}
@@ -1,17 +1,31 @@
 package com.unicornemporium.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import jakarta.persistence.*;
+import org.hibernate.annotations.BatchSize;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Set;
 
 @Entity
-@Table(name = "orders")
+@Table(name = "orders", indexes = {
+    @Index(name = "idx_orders_customer_email_order_date", columnList = "customer_email, order_date"),
+    @Index(name = "idx_orders_order_date", columnList = "order_date"),
+    @Index(name = "idx_orders_journal_sequence", columnList = "journal_sequence", unique = true),
+    @Index(name = "idx_orders_idempotency_key", columnList = "idempotency_key", unique = true)
+})
 public class Order {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "orders_seq")
+    @SequenceGenerator(name = "orders_seq", sequenceName = "orders_seq", allocationSize = 50)
     private Long id;
     
     @Column(nullable = false)
@@ -26,8 +40,11 @@ public class Order {
     @Column(nullable = false)
     private String deliveryMethod;
     
-    @Column(nullable = false)
-    private Double totalAmount;
+    @JsonProperty("totalAmount")
+    @JsonSerialize(using = Cents.Serializer.class)
+    @JsonDeserialize(using = Cents.Deserializer.class)
+    @Column(name = "total_amount_cents", nullable = false)
+    private long totalAmountCents;
     
     @Column(nullable = false)
     private LocalDateTime orderDate;
@@ -36,12 +53,31 @@ public class Order {
     @Enumerated(EnumType.STRING)
     private OrderStatus status;
     
+    // Set only for orders accepted through the write-behind journal
+    @JsonIgnore
+    @Column(name = "journal_sequence")
+    private Long journalSequence;
+    
+    // Client-supplied Idempotency-Key of the request that created the order. Written to the
+    // write-behind journal with the order, so it reaches the column there too.
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    @Column(name = "idempotency_key")
+    private String idempotencyKey;
+    
+    // Incremented on every update, including bulk status transitions
+    @Version
+    @Column(nullable = false)
+    private Long version;
+    
     @OneToMany(mappedBy = "order", cascade = CascadeType.ALL, orphanRemoval = true)
+    @BatchSize(size = 100)
     private List<OrderItem> items = new ArrayList<>();
     
     @PrePersist
     protected void onCreate() {
-        orderDate = LocalDateTime.now();
+        if (orderDate == null) {
+            orderDate = LocalDateTime.now();
+        }
         if (status == null) {
             status = OrderStatus.PENDING;
         }
@@ -53,19 +89,40 @@ public class Order {
     }
     
     public enum OrderStatus {
-        PENDING, PROCESSING, SHIPPED, DELIVERED, CANCELLED
+        PENDING, PROCESSING, SHIPPED, DELIVERED, CANCELLED;
+        
+        // Orders only move forward, and can be cancelled until they have shipped.
+        public boolean canTransitionTo(OrderStatus next) {
+            return switch (this) {
+                case PENDING -> next == PROCESSING || next == CANCELLED;
+                case PROCESSING -> next == SHIPPED || next == CANCELLED;
+                case SHIPPED -> next == DELIVERED;
+                case DELIVERED, CANCELLED -> false;
+            };
+        }
+        
+        // Statuses an order can be moved to this status from.
+        public Set<OrderStatus> predecessors() {
+            Set<OrderStatus> predecessors = EnumSet.noneOf(OrderStatus.class);
+            for (OrderStatus status : values()) {
+                if (status.canTransitionTo(this)) {
+                    predecessors.add(status);
+                }
+            }
+            return predecessors;
+        }
     }
 
     public Order() {
     }
 
-    public Order(Long id, String customerName, String customerEmail, String deliveryAddress, String deliveryMethod, Double totalAmount, LocalDateTime orderDate, OrderStatus status, List<OrderItem> items) {
+    public Order(Long id, String customerName, String customerEmail, String deliveryAddress, String deliveryMethod, long totalAmountCents, LocalDateTime orderDate, OrderStatus status, List<OrderItem> items) {
         this.id = id;
         this.customerName = customerName;
         this.customerEmail = customerEmail;
         this.deliveryAddress = deliveryAddress;
         this.deliveryMethod = deliveryMethod;
-        this.totalAmount = totalAmount;
+        this.totalAmountCents = totalAmountCents;
         this.orderDate = orderDate;
         this.status = status;
         this.items = items;
@@ -111,12 +168,12 @@ public class Order {
         this.deliveryMethod = deliveryMethod;
     }
 
-    public Double getTotalAmount() {
-        return totalAmount;
+    public long getTotalAmountCents() {
+        return totalAmountCents;
     }
 
-    public void setTotalAmount(Double totalAmount) {
-        this.totalAmount = totalAmount;
+    public void setTotalAmountCents(long totalAmountCents) {
+        this.totalAmountCents = totalAmountCents;
     }
 
     public LocalDateTime getOrderDate() {
@@ -135,6 +192,30 @@ public class Order {
         this.status = status;
     }
 
+    public Long getJournalSequence() {
+        return journalSequence;
+    }
+
+    public void setJournalSequence(Long journalSequence) {
+        this.journalSequence = journalSequence;
+    }
+
+    public String getIdempotencyKey() {
+        return idempotencyKey;
+    }
+
+    public void setIdempotencyKey(String idempotencyKey) {
+        this.idempotencyKey = idempotencyKey;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     public List<OrderItem> getItems() {
         return items;
     }
@@ -1,14 +1,20 @@
 package com.unicornemporium.model;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import jakarta.persistence.*;
 
 @Entity
-@Table(name = "order_items")
+@Table(name = "order_items", indexes = {
+    @Index(name = "idx_order_items_order_id", columnList = "order_id")
+})
 public class OrderItem {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_items_seq")
+    @SequenceGenerator(name = "order_items_seq", sequenceName = "order_items_seq", allocationSize = 50)
     private Long id;
     
     @ManyToOne(fetch = FetchType.LAZY)
@@ -25,19 +31,22 @@ public class OrderItem {
     @Column(nullable = false)
     private Integer quantity;
     
-    @Column(nullable = false)
-    private Double price;
+    @JsonProperty("price")
+    @JsonSerialize(using = Cents.Serializer.class)
+    @JsonDeserialize(using = Cents.Deserializer.class)
+    @Column(name = "price_cents", nullable = false)
+    private long priceCents;
 
     public OrderItem() {
     }
 
-    public OrderItem(Long id, Order order, Long productId, String productName, Integer quantity, Double price) {
+    public OrderItem(Long id, Order order, Long productId, String productName, Integer quantity, long priceCents) {
         this.id = id;
         this.order = order;
         this.productId = productId;
         this.productName = productName;
         this.quantity = quantity;
-        this.price = price;
+        this.priceCents = priceCents;
     }
 
     public Long getId() {
@@ -80,11 +89,11 @@ public class OrderItem {
         this.quantity = quantity;
     }
 
-    public Double getPrice() {
-        return price;
+    public long getPriceCents() {
+        return priceCents;
     }
 
-    public void setPrice(Double price) {
-        this.price = price;
+    public void setPriceCents(long priceCents) {
+        this.priceCents = priceCents;
     }
 }
@@ -1,5 +1,8 @@
 package com.unicornemporium.model;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import jakarta.persistence.*;
 
 import java.util.List;
@@ -15,8 +18,11 @@ public class Product {
     @Column(nullable = false)
     private String name;
     
-    @Column(nullable = false)
-    private Double price;
+    @JsonProperty("price")
+    @JsonSerialize(using = Cents.Serializer.class)
+    @JsonDeserialize(using = Cents.Deserializer.class)
+    @Column(name = "price_cents", nullable = false)
+    private long priceCents;
     
     @Column(nullable = false)
     private String category;
@@ -27,18 +33,24 @@ public class Product {
     @Column(length = 1000)
     private String description;
     
+    // Units in stock, or null when stock is not tracked. The live count is held by
+    // InventoryService and flushed here; it is accepted on create but never rendered.
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
+    private Integer stock;
+    
     @ElementCollection
-    @CollectionTable(name = "product_features", joinColumns = @JoinColumn(name = "product_id"))
+    @CollectionTable(name = "product_features", joinColumns = @JoinColumn(name = "product_id"),
+        indexes = @Index(name = "idx_product_features_product_id", columnList = "product_id"))
     @Column(name = "feature")
     private List<String> features;
 
     public Product() {
     }
 
-    public Product(Long id, String name, Double price, String category, String image, String description, List<String> features) {
+    public Product(Long id, String name, long priceCents, String category, String image, String description, List<String> features) {
         this.id = id;
         this.name = name;
-        this.price = price;
+        this.priceCents = priceCents;
         this.category = category;
         this.image = image;
         this.description = description;
@@ -61,12 +73,12 @@ public class Product {
         this.name = name;
     }
 
-    public Double getPrice() {
-        return price;
+    public long getPriceCents() {
+        return priceCents;
     }
 
-    public void setPrice(Double price) {
-        this.price = price;
+    public void setPriceCents(long priceCents) {
+        this.priceCents = priceCents;
     }
 
     public String getCategory() {
@@ -93,6 +105,14 @@ public class Product {
         this.description = description;
     }
 
+    public Integer getStock() {
+        return stock;
+    }
+
+    public void setStock(Integer stock) {
+        this.stock = stock;
+    }
+
     public List<String> getFeatures() {
         return features;
     }
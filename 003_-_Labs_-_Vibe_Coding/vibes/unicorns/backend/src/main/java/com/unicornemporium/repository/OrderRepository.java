@@ -1,13 +1,73 @@
 package com.unicornemporium.repository;
 
+import com.unicornemporium.dto.OrderItemView;
+import com.unicornemporium.dto.OrderView;
 import com.unicornemporium.model.Order;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 @Repository
 public interface OrderRepository extends JpaRepository<Order, Long> {
-    List<Order> findByCustomerEmail(String customerEmail);
+    String ORDER_VIEW = "select new com.unicornemporium.dto.OrderView(o.id, o.customerName, o.customerEmail, "
+            + "o.deliveryAddress, o.deliveryMethod, o.totalAmountCents, o.orderDate, o.status, o.version) from Order o";
+    
+    @Query(ORDER_VIEW + " where o.id = :id")
+    Optional<OrderView> findViewById(@Param("id") Long id);
+    
+    @Query(ORDER_VIEW + " where o.journalSequence = :journalSequence")
+    Optional<OrderView> findViewByJournalSequence(@Param("journalSequence") Long journalSequence);
+    
+    Optional<Order> findByIdempotencyKey(String idempotencyKey);
+    
+    @Query("select max(o.journalSequence) from Order o")
+    Long findMaxJournalSequence();
+    
+    @Query(ORDER_VIEW + " where o.customerEmail = :email order by o.orderDate desc, o.id desc")
+    Slice<OrderView> findViewsByCustomerEmailNewestFirst(@Param("email") String email, Pageable pageable);
+    
+    @Query(ORDER_VIEW + " where o.id > :afterId order by o.id")
+    List<OrderView> findViewsAfter(@Param("afterId") Long afterId, Limit limit);
+    
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "256"))
+    @Query(ORDER_VIEW + " order by o.id")
+    Stream<OrderView> streamAllViewsOrderedById();
+    
+    @Query("select new com.unicornemporium.dto.OrderItemView(i.order.id, i.id, i.productId, i.productName, i.quantity, "
+            + "i.priceCents) from OrderItem i where i.order.id in :orderIds order by i.id")
+    List<OrderItemView> findItemViewsByOrderIdIn(@Param("orderIds") Collection<Long> orderIds);
+    
+    // Set-based transition: one UPDATE moves every listed order that is in one of the `from` statuses.
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Order o set o.status = :to, o.version = o.version + 1 where o.id in :ids and o.status in :from")
+    int updateStatus(@Param("ids") Collection<Long> ids, @Param("from") Set<Order.OrderStatus> from,
+                     @Param("to") Order.OrderStatus to);
+    
+    @Query("select o.id from Order o where o.id in :ids and o.status = :status")
+    List<Long> findIdsByIdInAndStatus(@Param("ids") Collection<Long> ids, @Param("status") Order.OrderStatus status);
+    
+    // Locks the matching rows until the transaction ends
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select o.id from Order o where o.id in :ids and o.status in :statuses")
+    List<Long> lockIdsByIdInAndStatusIn(@Param("ids") Collection<Long> ids,
+                                        @Param("statuses") Set<Order.OrderStatus> statuses);
+    
+    @Query("select i.productId, sum(i.quantity) from OrderItem i where i.order.id in :ids group by i.productId")
+    List<Object[]> sumQuantitiesByProduct(@Param("ids") Collection<Long> orderIds);
 }
-
@@ -1,7 +1,11 @@
 package com.unicornemporium.repository;
 
 import com.unicornemporium.model.Product;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -9,5 +13,14 @@ import java.util.List;
 @Repository
 public interface ProductRepository extends JpaRepository<Product, Long> {
     List<Product> findByCategory(String category);
+    
+    @EntityGraph(attributePaths = "features")
+    List<Product> findAllWithFeaturesBy();
+    
+    @Query("select p.stock from Product p where p.id = :id")
+    Integer findStockById(@Param("id") Long id);
+    
+    @Modifying
+    @Query("update Product p set p.stock = :stock where p.id = :id")
+    int updateStock(@Param("id") Long id, @Param("stock") Integer stock);
 }
-
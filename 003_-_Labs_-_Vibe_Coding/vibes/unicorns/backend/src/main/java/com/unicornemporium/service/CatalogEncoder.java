@@ -0,0 +1,44 @@
+package com.unicornemporium.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+// Encodes catalog payloads and counts payload cache hits and misses (encodes).
+final class CatalogEncoder {
+    
+    private final Map<WireFormat, ObjectMapper> mappers = new EnumMap<>(WireFormat.class);
+    private final Counter hits;
+    private final Counter misses;
+
+    CatalogEncoder(ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        for (WireFormat format : WireFormat.values()) {
+            mappers.put(format, format.mapper(objectMapper));
+        }
+        this.hits = Counter.builder("catalog.payload.requests")
+                .description("Catalog payload lookups, by cache result")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.misses = Counter.builder("catalog.payload.requests")
+                .description("Catalog payload lookups, by cache result")
+                .tag("result", "miss")
+                .register(meterRegistry);
+    }
+    
+    void recordHit() {
+        hits.increment();
+    }
+    
+    CatalogPayload encode(Object value, WireFormat format, long lastModified) {
+        misses.increment();
+        try {
+            return new CatalogPayload(format, mappers.get(format).writeValueAsBytes(value), lastModified);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to encode catalog", e);
+        }
+    }
+}
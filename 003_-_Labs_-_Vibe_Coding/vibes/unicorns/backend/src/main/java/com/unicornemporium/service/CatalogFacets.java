@@ -0,0 +1,90 @@
+package com.unicornemporium.service;
+
+import com.unicornemporium.dto.ProductQueryResult;
+import com.unicornemporium.model.Product;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Columnar view of the catalog for faceted filtering. Bit i of every set stands for the i-th
+// product of the snapshot, so a multi-facet filter and its facet counts are bitset intersections
+// plus one scan over the price column.
+final class CatalogFacets {
+    
+    private static final BitSet NONE = new BitSet();
+    
+    private final List<Product> products;
+    private final long[] prices;
+    private final Map<String, BitSet> categories = new TreeMap<>();
+    private final Map<String, BitSet> features = new TreeMap<>();
+
+    CatalogFacets(List<Product> products) {
+        this.products = products;
+        this.prices = new long[products.size()];
+        for (int i = 0; i < products.size(); i++) {
+            Product product = products.get(i);
+            prices[i] = product.getPriceCents();
+            categories.computeIfAbsent(product.getCategory(), c -> new BitSet()).set(i);
+            for (String feature : product.getFeatures()) {
+                features.computeIfAbsent(feature, f -> new BitSet()).set(i);
+            }
+        }
+    }
+    
+    // Products in any of the given categories (all if none), priced within [minPriceCents,
+    // maxPriceCents] (either bound may be null) and having every given feature.
+    ProductQueryResult query(Collection<String> categoryFilter, Long minPriceCents, Long maxPriceCents,
+                             Collection<String> featureFilter) {
+        BitSet matches = priceRange(minPriceCents, maxPriceCents);
+        for (String feature : featureFilter) {
+            matches.and(features.getOrDefault(feature, NONE));
+        }
+        
+        Map<String, Integer> categoryCounts = new LinkedHashMap<>();
+        categories.forEach((category, members) -> categoryCounts.put(category, intersectionSize(matches, members)));
+        if (!categoryFilter.isEmpty()) {
+            BitSet inCategories = new BitSet(products.size());
+            for (String category : categoryFilter) {
+                inCategories.or(categories.getOrDefault(category, NONE));
+            }
+            matches.and(inCategories);
+        }
+        
+        Map<String, Integer> featureCounts = new LinkedHashMap<>();
+        features.forEach((feature, members) -> {
+            int count = intersectionSize(matches, members);
+            if (count > 0) {
+                featureCounts.put(feature, count);
+            }
+        });
+        
+        List<Product> matchingProducts = new ArrayList<>(matches.cardinality());
+        for (int i = matches.nextSetBit(0); i >= 0; i = matches.nextSetBit(i + 1)) {
+            matchingProducts.add(products.get(i));
+        }
+        return new ProductQueryResult(matchingProducts, categoryCounts, featureCounts);
+    }
+    
+    private BitSet priceRange(Long minPriceCents, Long maxPriceCents) {
+        BitSet inRange = new BitSet(prices.length);
+        long min = minPriceCents == null ? Long.MIN_VALUE : minPriceCents;
+        long max = maxPriceCents == null ? Long.MAX_VALUE : maxPriceCents;
+        for (int i = 0; i < prices.length; i++) {
+            if (prices[i] >= min && prices[i] <= max) {
+                inRange.set(i);
+            }
+        }
+        return inRange;
+    }
+    
+    private static int intersectionSize(BitSet a, BitSet b) {
+        BitSet intersection = (BitSet) a.clone();
+        intersection.and(b);
+        return intersection.cardinality();
+    }
+}
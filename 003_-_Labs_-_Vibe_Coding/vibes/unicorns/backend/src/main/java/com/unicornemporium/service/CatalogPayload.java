@@ -0,0 +1,60 @@
+package com.unicornemporium.service;
+
+import org.springframework.util.DigestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.zip.GZIPOutputStream;
+
+// A catalog response encoded once and reused for every request until the catalog changes.
+public final class CatalogPayload {
+    
+    private final WireFormat format;
+    private final byte[] body;
+    private final String etag;
+    private final long lastModified;
+    private volatile byte[] gzip;
+
+    CatalogPayload(WireFormat format, byte[] body, long lastModified) {
+        this.format = format;
+        this.body = body;
+        this.etag = DigestUtils.md5DigestAsHex(body);
+        this.lastModified = lastModified;
+    }
+
+    public WireFormat getFormat() {
+        return format;
+    }
+
+    public byte[] getBody() {
+        return body;
+    }
+
+    public byte[] getGzip() {
+        byte[] compressed = gzip;
+        if (compressed == null) {
+            compressed = compress(body);
+            gzip = compressed;
+        }
+        return compressed;
+    }
+
+    public String getEtag() {
+        return etag;
+    }
+
+    public long getLastModified() {
+        return lastModified;
+    }
+    
+    private static byte[] compress(byte[] bytes) {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(bytes.length / 4 + 64);
+        try (GZIPOutputStream gzipStream = new GZIPOutputStream(buffer)) {
+            gzipStream.write(bytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return buffer.toByteArray();
+    }
+}
@@ -0,0 +1,130 @@
+package com.unicornemporium.service;
+
+import com.unicornemporium.model.Product;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.stream.Collectors;
+
+// Immutable view of the whole product catalog, indexed by id, by category, for text search
+// and for faceted filtering.
+// A new snapshot is built for every catalog write, so readers never see a partial update.
+// Encoded responses are memoized per snapshot and dropped along with it.
+final class CatalogSnapshot {
+    
+    static final CatalogSnapshot EMPTY = new CatalogSnapshot(List.of(), SearchIndex.EMPTY);
+    
+    private final List<Product> products;
+    private final Map<Long, Product> productsById;
+    private final Map<String, List<Product>> productsByCategory;
+    private final PriceIndex priceIndex;
+    private final SearchIndex searchIndex;
+    private final CatalogFacets facets;
+    private final long lastModified = System.currentTimeMillis();
+    private final ConcurrentMap<String, CatalogPayload> payloads = new ConcurrentHashMap<>();
+
+    private CatalogSnapshot(List<Product> products, SearchIndex searchIndex) {
+        this.products = List.copyOf(products);
+        this.productsById = Map.copyOf(this.products.stream()
+                .collect(Collectors.toMap(Product::getId, product -> product)));
+        Map<String, List<Product>> byCategory = this.products.stream()
+                .collect(Collectors.groupingBy(Product::getCategory, LinkedHashMap::new, Collectors.toList()));
+        byCategory.replaceAll((category, categoryProducts) -> List.copyOf(categoryProducts));
+        this.productsByCategory = Map.copyOf(byCategory);
+        this.priceIndex = new PriceIndex(this.products);
+        this.searchIndex = searchIndex;
+        this.facets = new CatalogFacets(this.products);
+    }
+    
+    static CatalogSnapshot of(List<Product> products) {
+        List<Product> copies = new ArrayList<>(products.size());
+        for (Product product : products) {
+            copies.add(copyOf(product));
+        }
+        copies.sort(Comparator.comparing(Product::getId));
+        return new CatalogSnapshot(copies, SearchIndex.of(copies));
+    }
+    
+    CatalogSnapshot with(Product product) {
+        Product copy = copyOf(product);
+        List<Product> updated = new ArrayList<>(products.size() + 1);
+        for (Product existing : products) {
+            if (!existing.getId().equals(product.getId())) {
+                updated.add(existing);
+            }
+        }
+        updated.add(copy);
+        updated.sort(Comparator.comparing(Product::getId));
+        return new CatalogSnapshot(updated, searchIndex.with(copy, productsById.get(product.getId())));
+    }
+    
+    List<Product> products() {
+        return products;
+    }
+    
+    Optional<Product> product(Long id) {
+        return Optional.ofNullable(productsById.get(id));
+    }
+    
+    List<Product> productsInCategory(String category) {
+        return productsByCategory.getOrDefault(category, List.of());
+    }
+    
+    List<Product> search(String query, int limit) {
+        List<Long> ids = searchIndex.search(query, limit);
+        List<Product> hits = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            hits.add(productsById.get(id));
+        }
+        return hits;
+    }
+    
+    CatalogFacets facets() {
+        return facets;
+    }
+    
+    PriceIndex priceIndex() {
+        return priceIndex;
+    }
+    
+    CatalogPayload allProductsPayload(WireFormat format, CatalogEncoder encoder) {
+        return payload("all", products, format, encoder);
+    }
+    
+    Optional<CatalogPayload> productPayload(Long id, WireFormat format, CatalogEncoder encoder) {
+        return product(id).map(product -> payload("id:" + id, product, format, encoder));
+    }
+    
+    // Unknown categories are encoded per request rather than memoized, so arbitrary
+    // category names cannot grow the payload map.
+    CatalogPayload categoryPayload(String category, WireFormat format, CatalogEncoder encoder) {
+        List<Product> categoryProducts = productsByCategory.get(category);
+        if (categoryProducts == null) {
+            return encoder.encode(List.of(), format, lastModified);
+        }
+        return payload("category:" + category, categoryProducts, format, encoder);
+    }
+    
+    private CatalogPayload payload(String key, Object value, WireFormat format, CatalogEncoder encoder) {
+        String formatKey = format.name() + ":" + key;
+        CatalogPayload payload = payloads.get(formatKey);
+        if (payload != null) {
+            encoder.recordHit();
+            return payload;
+        }
+        return payloads.computeIfAbsent(formatKey, k -> encoder.encode(value, format, lastModified));
+    }
+    
+    // Detached copy with an immutable feature list, so the snapshot never holds Hibernate collections.
+    private static Product copyOf(Product product) {
+        List<String> features = product.getFeatures() == null ? List.of() : List.copyOf(product.getFeatures());
+        return new Product(product.getId(), product.getName(), product.getPriceCents(), product.getCategory(),
+                product.getImage(), product.getDescription(), features);
+    }
+}
@@ -0,0 +1,144 @@
+package com.unicornemporium.service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Compact columnar file, written one row group at a time so memory stays bounded by the group
+// size. Within a group each column is stored contiguously: integer columns as zigzag varint
+// deltas, text columns as a dictionary of the group's distinct values followed by one varint
+// index per row (0 is null). Layout:
+//   magic "UNICOL1\n"
+//   varint column count, then per column: type byte ('L' integer, 'T' text), varint length, UTF-8 name
+//   per group: varint row count, then per column: varint byte length, encoded values
+//   varint 0 (an empty group) ends the file
+// The end marker is only written by finish(), so a file cut short by a failed export is detectably
+// incomplete rather than a valid file with rows missing.
+final class ColumnarWriter {
+
+    enum Type {
+        LONG('L'), TEXT('T');
+
+        private final char code;
+
+        Type(char code) {
+            this.code = code;
+        }
+    }
+
+    private static final byte[] MAGIC = "UNICOL1\n".getBytes(StandardCharsets.US_ASCII);
+
+    private final OutputStream out;
+    private final Type[] types;
+    private final int rowGroupSize;
+    private final long[][] longs;
+    private final String[][] texts;
+    private final ByteArrayOutputStream column = new ByteArrayOutputStream();
+    private int rows;
+
+    ColumnarWriter(OutputStream out, List<String> names, List<Type> types, int rowGroupSize) throws IOException {
+        this.out = out;
+        this.types = types.toArray(new Type[0]);
+        this.rowGroupSize = rowGroupSize;
+        this.longs = new long[this.types.length][];
+        this.texts = new String[this.types.length][];
+        for (int i = 0; i < this.types.length; i++) {
+            if (this.types[i] == Type.LONG) {
+                longs[i] = new long[rowGroupSize];
+            } else {
+                texts[i] = new String[rowGroupSize];
+            }
+        }
+        out.write(MAGIC);
+        writeVarint(out, names.size());
+        for (int i = 0; i < names.size(); i++) {
+            out.write(this.types[i].code);
+            writeText(out, names.get(i));
+        }
+    }
+
+    void setLong(int columnIndex, long value) {
+        longs[columnIndex][rows] = value;
+    }
+
+    void setText(int columnIndex, String value) {
+        texts[columnIndex][rows] = value;
+    }
+
+    void endRow() throws IOException {
+        if (++rows == rowGroupSize) {
+            writeGroup();
+        }
+    }
+
+    private void writeGroup() throws IOException {
+        writeVarint(out, rows);
+        for (int i = 0; i < types.length; i++) {
+            column.reset();
+            if (types[i] == Type.LONG) {
+                encodeLongs(longs[i]);
+            } else {
+                encodeTexts(texts[i]);
+            }
+            writeVarint(out, column.size());
+            column.writeTo(out);
+        }
+        rows = 0;
+    }
+
+    private void encodeLongs(long[] values) throws IOException {
+        long previous = 0;
+        for (int row = 0; row < rows; row++) {
+            long delta = values[row] - previous;
+            writeVarint(column, (delta << 1) ^ (delta >> 63));
+            previous = values[row];
+        }
+    }
+
+    private void encodeTexts(String[] values) throws IOException {
+        Map<String, Integer> dictionary = new HashMap<>();
+        int[] indexes = new int[rows];
+        for (int row = 0; row < rows; row++) {
+            String value = values[row];
+            indexes[row] = value == null ? 0 : dictionary.computeIfAbsent(value, v -> dictionary.size() + 1);
+            values[row] = null;
+        }
+        String[] entries = new String[dictionary.size()];
+        dictionary.forEach((value, index) -> entries[index - 1] = value);
+        writeVarint(column, entries.length);
+        for (String entry : entries) {
+            writeText(column, entry);
+        }
+        for (int index : indexes) {
+            writeVarint(column, index);
+        }
+    }
+
+    private static void writeText(OutputStream target, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarint(target, bytes.length);
+        target.write(bytes);
+    }
+
+    private static void writeVarint(OutputStream target, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            target.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        target.write((int) value);
+    }
+
+    // Writes the last, partial group and the end marker once every row has been written. The
+    // underlying stream is left open.
+    void finish() throws IOException {
+        if (rows > 0) {
+            writeGroup();
+        }
+        writeVarint(out, 0);
+        out.flush();
+    }
+}
@@ -0,0 +1,12 @@
+package com.unicornemporium.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.CONFLICT)
+public class ConcurrentOrderUpdateException extends RuntimeException {
+    
+    public ConcurrentOrderUpdateException(String message) {
+        super(message);
+    }
+}
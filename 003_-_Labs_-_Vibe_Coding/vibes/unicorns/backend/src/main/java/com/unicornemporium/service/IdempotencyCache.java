@@ -0,0 +1,102 @@
+package com.unicornemporium.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+// Remembers request outcomes by Idempotency-Key, bounded in size and expiring after a TTL.
+// Concurrent requests with the same key share one execution. Failures are not remembered,
+// so a failed request can be retried with the same key. Each outcome keeps a hash of the request
+// that produced it, and a key reused for a different request is rejected.
+final class IdempotencyCache<T> {
+    
+    // Matches the orders.idempotency_key column
+    static final int MAX_KEY_LENGTH = 255;
+    
+    private final ConcurrentMap<String, Outcome<T>> results;
+    private final ObjectWriter requestWriter;
+    private final Counter hits;
+    private final Counter misses;
+
+    private record Outcome<T>(String requestHash, CompletableFuture<T> result) {
+    }
+
+    IdempotencyCache(Duration ttl, long maximumSize, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        Cache<String, Outcome<T>> cache = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maximumSize)
+                .build();
+        this.results = cache.asMap();
+        this.requestWriter = objectMapper.writer();
+        this.hits = Counter.builder("orders.idempotency.requests")
+                .description("Order requests with an Idempotency-Key, by cache result")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.misses = Counter.builder("orders.idempotency.requests")
+                .description("Order requests with an Idempotency-Key, by cache result")
+                .tag("result", "miss")
+                .register(meterRegistry);
+    }
+    
+    T execute(String key, Object request, Supplier<T> action) {
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new InvalidOrderException("Idempotency-Key must be 1 to " + MAX_KEY_LENGTH + " characters");
+        }
+        Outcome<T> outcome = new Outcome<>(hash(request), new CompletableFuture<>());
+        Outcome<T> existing = results.putIfAbsent(key, outcome);
+        if (existing != null) {
+            if (!existing.requestHash().equals(outcome.requestHash())) {
+                throw new IdempotencyKeyReusedException("Idempotency-Key was already used for a different request");
+            }
+            hits.increment();
+            return join(existing.result());
+        }
+        misses.increment();
+        try {
+            T value = action.get();
+            outcome.result().complete(value);
+            return value;
+        } catch (RuntimeException e) {
+            results.remove(key, outcome);
+            outcome.result().completeExceptionally(e);
+            throw e;
+        }
+    }
+    
+    // SHA-256 of the request as re-serialized from its parsed form, so a retry that differs only
+    // in whitespace or property order still matches.
+    private String hash(Object request) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(requestWriter.writeValueAsBytes(request)));
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Request cannot be serialized", e);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+    
+    private static <T> T join(CompletableFuture<T> result) {
+        try {
+            return result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.unicornemporium.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.unicornemporium.dto.OrderRequest;
+import com.unicornemporium.dto.OrderResponse;
+import com.unicornemporium.repository.OrderRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+
+// Order creation with an Idempotency-Key. A retry within the TTL is answered from memory without
+// touching the database. Past the TTL, or when another instance took the key, the unique index
+// on orders.idempotency_key rejects the duplicate insert and the original order is returned.
+// Within the TTL, reusing a key for a different order is answered with 422.
+@Service
+public class IdempotentOrderService {
+    
+    private final OrderService orderService;
+    private final OrderRepository orderRepository;
+    private final IdempotencyCache<OrderResponse> responses;
+
+    public IdempotentOrderService(OrderService orderService, OrderRepository orderRepository,
+                                  ObjectMapper objectMapper, MeterRegistry meterRegistry,
+                                  @Value("${unicorn.orders.idempotency.ttl}") Duration ttl,
+                                  @Value("${unicorn.orders.idempotency.max-keys}") long maxKeys) {
+        this.orderService = orderService;
+        this.orderRepository = orderRepository;
+        this.responses = new IdempotencyCache<>(ttl, maxKeys, objectMapper, meterRegistry);
+    }
+    
+    public OrderResponse createOrder(OrderRequest orderRequest, String idempotencyKey) {
+        return responses.execute(idempotencyKey, orderRequest, () -> {
+            try {
+                return orderService.createOrder(orderRequest, idempotencyKey);
+            } catch (DataIntegrityViolationException e) {
+                return orderRepository.findByIdempotencyKey(idempotencyKey)
+                        .map(OrderResponse::fromOrder)
+                        .orElseThrow(() -> e);
+            }
+        });
+    }
+}
@@ -0,0 +1,234 @@
+package com.unicornemporium.service;
+
+import com.unicornemporium.model.Order;
+import com.unicornemporium.model.OrderItem;
+import com.unicornemporium.repository.ProductRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Live stock counts. Checkout reserves against in-memory striped counters instead of locking the
+// product row, and changed counts are flushed to products.stock periodically and on shutdown.
+// A product's count is loaded from the database the first time it is needed; products whose
+// stock is null are not tracked and never run out.
+// Reservations of write-behind orders that are journaled but not yet in the database are counted
+// separately and added back when flushing, so products.stock only reflects persisted orders and a
+// restart can reserve the replayed journal entries again.
+@Service
+public class InventoryService {
+
+    private final ProductRepository productRepository;
+    private final TransactionTemplate transactionTemplate;
+    // Empty for products whose stock is not tracked
+    private final ConcurrentMap<Long, Optional<StripedStock>> stocks = new ConcurrentHashMap<>();
+    private final Set<Long> dirty = ConcurrentHashMap.newKeySet();
+    private final ConcurrentMap<Long, AtomicLong> journaled = new ConcurrentHashMap<>();
+    // Held from reading stock levels until they are committed, so flushes never overwrite newer levels
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    public InventoryService(ProductRepository productRepository, PlatformTransactionManager transactionManager) {
+        this.productRepository = productRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public boolean reserve(long productId, long quantity) {
+        Optional<StripedStock> stock = stock(productId);
+        if (stock.isEmpty()) {
+            return true;
+        }
+        if (!stock.get().tryReserve(quantity)) {
+            return false;
+        }
+        markDirty(productId);
+        return true;
+    }
+
+    public void release(long productId, long quantity) {
+        Optional<StripedStock> stock = stock(productId);
+        if (stock.isPresent()) {
+            stock.get().release(quantity);
+            markDirty(productId);
+        }
+    }
+
+    // Empty when the product's stock is not tracked.
+    public Optional<Long> getAvailable(long productId) {
+        return stock(productId).map(StripedStock::available);
+    }
+
+    // Sets the absolute stock of a product; null stops tracking it.
+    public void setStock(long productId, Long available) {
+        if (available == null) {
+            stocks.put(productId, Optional.empty());
+        } else {
+            Optional<StripedStock> stock = stock(productId);
+            if (stock.isPresent()) {
+                stock.get().set(available);
+            } else {
+                stocks.put(productId, Optional.of(new StripedStock(available)));
+            }
+        }
+        markDirty(productId);
+    }
+
+    // Reserves every item of the order, or none of them.
+    void reserve(Order order) {
+        Map<Long, Long> quantities = quantities(order);
+        Map<Long, Long> reserved = new LinkedHashMap<>();
+        for (Map.Entry<Long, Long> entry : quantities.entrySet()) {
+            if (!reserve(entry.getKey(), entry.getValue())) {
+                reserved.forEach(this::release);
+                throw new OutOfStockException("Out of stock: " + entry.getKey());
+            }
+            reserved.put(entry.getKey(), entry.getValue());
+        }
+    }
+
+    void release(Order order) {
+        quantities(order).forEach(this::release);
+    }
+
+    // Reserves the order's items and hands them back if the surrounding transaction does not commit.
+    void reserveForTransaction(Order order) {
+        reserve(order);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        release(order);
+                    }
+                }
+            });
+        }
+    }
+
+    // Reserves a write-behind order's items as journaled, all or none of them.
+    void reserveJournaled(Order order) {
+        reserve(order);
+        quantities(order).forEach(this::addJournaled);
+    }
+
+    // Hands back the stock of a journaled order that will never be persisted.
+    void releaseJournaled(Order order) {
+        quantities(order).forEach((productId, quantity) -> {
+            addJournaled(productId, -quantity);
+            release(productId, quantity);
+        });
+    }
+
+    // Counts journaled orders as persisted and writes the stock levels of their products in the
+    // surrounding transaction, so the levels commit together with the orders. A rollback puts the
+    // reservations back among the journaled ones.
+    void persistJournaled(List<Order> orders) {
+        Map<Long, Long> quantities = new LinkedHashMap<>();
+        for (Order order : orders) {
+            quantities(order).forEach((productId, quantity) -> quantities.merge(productId, quantity, Long::sum));
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    quantities.forEach(InventoryService.this::addJournaled);
+                }
+                flushLock.unlock();
+            }
+        });
+        flushLock.lock();
+        quantities.forEach((productId, quantity) -> addJournaled(productId, -quantity));
+        write(quantities.keySet());
+    }
+
+    // Hands stock back once the surrounding transaction commits, e.g. for cancelled orders.
+    void releaseAfterCommit(Map<Long, Long> quantities) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            quantities.forEach(this::release);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                quantities.forEach(InventoryService.this::release);
+            }
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${unicorn.inventory.flush-interval}")
+    @PreDestroy
+    public void flush() {
+        if (dirty.isEmpty()) {
+            return;
+        }
+        flushLock.lock();
+        try {
+            write(dirty);
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    // The journaled count is read before the available one: a reservation in between lowers only
+    // the level written, so a flush racing a checkout errs towards under-selling after a restart.
+    private void write(Set<Long> productIds) {
+        Map<Long, Integer> levels = new LinkedHashMap<>();
+        for (Long productId : List.copyOf(productIds)) {
+            dirty.remove(productId);
+            long journaledQuantity = journaled.getOrDefault(productId, new AtomicLong()).get();
+            levels.put(productId, stocks.getOrDefault(productId, Optional.empty())
+                    .map(stock -> Math.toIntExact(journaledQuantity + stock.available()))
+                    .orElse(null));
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> levels.forEach(productRepository::updateStock));
+        } catch (RuntimeException e) {
+            dirty.addAll(levels.keySet());
+            throw e;
+        }
+    }
+
+    private Optional<StripedStock> stock(long productId) {
+        Optional<StripedStock> stock = stocks.get(productId);
+        if (stock != null) {
+            return stock;
+        }
+        return stocks.computeIfAbsent(productId, id ->
+                Optional.ofNullable(productRepository.findStockById(id)).map(StripedStock::new));
+    }
+
+    private void addJournaled(long productId, long quantity) {
+        if (stock(productId).isPresent()) {
+            journaled.computeIfAbsent(productId, id -> new AtomicLong()).addAndGet(quantity);
+            markDirty(productId);
+        }
+    }
+
+    // Marked after the count changed, so a flush that reads the count before this change is
+    // always followed by another one.
+    private void markDirty(long productId) {
+        if (!dirty.contains(productId)) {
+            dirty.add(productId);
+        }
+    }
+
+    private static Map<Long, Long> quantities(Order order) {
+        Map<Long, Long> quantities = new LinkedHashMap<>();
+        for (OrderItem item : order.getItems()) {
+            quantities.merge(item.getProductId(), (long) item.getQuantity(), Long::sum);
+        }
+        return quantities;
+    }
+}
@@ -0,0 +1,154 @@
+package com.unicornemporium.service;
+
+import com.unicornemporium.model.Cents;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+// Order history export: one row per order item, read straight from a forward-only JDBC cursor
+// over orders joined with order_items and written out as it is read. No entities are built, so
+// memory stays flat however many rows are exported.
+@Service
+public class OrderExportService {
+
+    private static final int FETCH_SIZE = 1000;
+    private static final int ROW_GROUP_SIZE = 8192;
+    private static final String SELECT = """
+            select o.id, o.order_date, o.status, o.customer_name, o.customer_email, o.delivery_address,
+                   o.delivery_method, o.total_amount_cents, i.product_id, i.product_name, i.quantity, i.price_cents
+            from orders o join order_items i on i.order_id = o.id""";
+    private static final LocalDateTime EPOCH = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final String ORDER_BY = " order by o.order_date, o.id, i.id";
+    private static final List<String> CSV_COLUMNS = List.of("order_id", "order_date", "status", "customer_name",
+            "customer_email", "delivery_address", "delivery_method", "order_total", "product_id", "product_name",
+            "quantity", "price");
+    // Amounts are exact cents and the order date is microseconds since 1970-01-01T00:00
+    private static final List<String> COLUMNAR_COLUMNS = List.of("order_id", "order_date_micros", "status",
+            "customer_name", "customer_email", "delivery_address", "delivery_method", "order_total_cents",
+            "product_id", "product_name", "quantity", "price_cents");
+    private static final List<ColumnarWriter.Type> COLUMNAR_TYPES = List.of(
+            ColumnarWriter.Type.LONG, ColumnarWriter.Type.LONG, ColumnarWriter.Type.TEXT, ColumnarWriter.Type.TEXT,
+            ColumnarWriter.Type.TEXT, ColumnarWriter.Type.TEXT, ColumnarWriter.Type.TEXT, ColumnarWriter.Type.LONG,
+            ColumnarWriter.Type.LONG, ColumnarWriter.Type.TEXT, ColumnarWriter.Type.LONG, ColumnarWriter.Type.LONG);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public OrderExportService(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(FETCH_SIZE);
+    }
+
+    // Orders placed from `from` through `to`, both inclusive and both optional, oldest first.
+    @Transactional(readOnly = true)
+    public void writeCsv(LocalDate from, LocalDate to, OutputStream outputStream) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8), 64 * 1024);
+        writer.write(String.join(",", CSV_COLUMNS));
+        writer.write("\r\n");
+        query(from, to, rs -> {
+            try {
+                writer.write(Long.toString(rs.getLong(1)));
+                writer.write(',');
+                writer.write(rs.getObject(2, LocalDateTime.class).toString());
+                for (int column = 3; column <= 7; column++) {
+                    writer.write(',');
+                    writeCsvField(writer, rs.getString(column));
+                }
+                writer.write(',');
+                writer.write(Cents.toDecimal(rs.getLong(8)).toPlainString());
+                writer.write(',');
+                writer.write(Long.toString(rs.getLong(9)));
+                writer.write(',');
+                writeCsvField(writer, rs.getString(10));
+                writer.write(',');
+                writer.write(Integer.toString(rs.getInt(11)));
+                writer.write(',');
+                writer.write(Cents.toDecimal(rs.getLong(12)).toPlainString());
+                writer.write("\r\n");
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        writer.flush();
+    }
+
+    // Same rows as the CSV export in the ColumnarWriter format. If reading fails part way, the
+    // output is left without its end marker.
+    @Transactional(readOnly = true)
+    public void writeColumnar(LocalDate from, LocalDate to, OutputStream outputStream) throws IOException {
+        ColumnarWriter writer = new ColumnarWriter(outputStream, COLUMNAR_COLUMNS, COLUMNAR_TYPES, ROW_GROUP_SIZE);
+        query(from, to, rs -> {
+            writer.setLong(0, rs.getLong(1));
+            writer.setLong(1, ChronoUnit.MICROS.between(EPOCH, rs.getObject(2, LocalDateTime.class)));
+            for (int column = 3; column <= 7; column++) {
+                writer.setText(column - 1, rs.getString(column));
+            }
+            writer.setLong(7, rs.getLong(8));
+            writer.setLong(8, rs.getLong(9));
+            writer.setText(9, rs.getString(10));
+            writer.setLong(10, rs.getInt(11));
+            writer.setLong(11, rs.getLong(12));
+            try {
+                writer.endRow();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        writer.finish();
+    }
+
+    private void query(LocalDate from, LocalDate to, RowCallbackHandler handler) throws IOException {
+        StringBuilder sql = new StringBuilder(SELECT);
+        List<Object> parameters = new ArrayList<>();
+        if (from != null) {
+            sql.append(" where o.order_date >= ?");
+            parameters.add(from.atStartOfDay());
+        }
+        if (to != null) {
+            sql.append(from != null ? " and" : " where").append(" o.order_date < ?");
+            parameters.add(to.plusDays(1).atStartOfDay());
+        }
+        sql.append(ORDER_BY);
+        try {
+            jdbcTemplate.query(connection -> {
+                PreparedStatement statement = connection.prepareStatement(sql.toString(), ResultSet.TYPE_FORWARD_ONLY,
+                        ResultSet.CONCUR_READ_ONLY);
+                for (int i = 0; i < parameters.size(); i++) {
+                    statement.setObject(i + 1, parameters.get(i));
+                }
+                return statement;
+            }, handler);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static void writeCsvField(Writer writer, String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
@@ -0,0 +1,192 @@
+package com.unicornemporium.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.unicornemporium.dto.BulkOrderResult;
+import com.unicornemporium.dto.OrderItemRequest;
+import com.unicornemporium.dto.OrderRequest;
+import com.unicornemporium.model.Order;
+import com.unicornemporium.repository.OrderRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+
+// Bulk order ingestion from NDJSON feeds: one OrderRequest per line, persisted in chunked
+// transactions so inserts are batched and the persistence context is cleared between chunks.
+@Service
+public class OrderIngestService {
+    
+    private static final int CHUNK_SIZE = 500;
+    
+    private final OrderService orderService;
+    private final ProductService productService;
+    private final InventoryService inventoryService;
+    private final SalesAnalyticsService salesAnalytics;
+    private final OrderRepository orderRepository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
+    private final ObjectReader orderRequestReader;
+    private final ObjectWriter resultWriter;
+    private final Counter ordersPlaced;
+
+    public OrderIngestService(OrderService orderService, ProductService productService, InventoryService inventoryService,
+                              SalesAnalyticsService salesAnalytics, OrderRepository orderRepository,
+                              EntityManager entityManager, PlatformTransactionManager transactionManager,
+                              Validator validator, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.orderService = orderService;
+        this.productService = productService;
+        this.inventoryService = inventoryService;
+        this.salesAnalytics = salesAnalytics;
+        this.orderRepository = orderRepository;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.validator = validator;
+        this.orderRequestReader = objectMapper.readerFor(OrderRequest.class);
+        this.resultWriter = objectMapper.writerFor(BulkOrderResult.class)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        this.ordersPlaced = Counter.builder("orders.placed")
+                .description("Orders persisted, by intake endpoint")
+                .tag("source", "bulk")
+                .register(meterRegistry);
+    }
+    
+    // Writes one BulkOrderResult per non-blank line to `out` as NDJSON, in line order. Results are
+    // written and flushed as each chunk commits, so memory stays bounded by the chunk size rather
+    // than growing with the feed.
+    public void ingest(InputStream ndjson, OutputStream out) throws IOException {
+        List<PendingOrder> chunk = new ArrayList<>(CHUNK_SIZE);
+        // Results of the lines read since the last chunk was persisted
+        List<BulkOrderResult> results = new ArrayList<>(CHUNK_SIZE);
+        BufferedReader reader = new BufferedReader(new InputStreamReader(ndjson, StandardCharsets.UTF_8));
+        int lineNumber = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            OrderRequest orderRequest = null;
+            try {
+                orderRequest = orderRequestReader.readValue(line);
+            } catch (JsonProcessingException e) {
+                results.add(BulkOrderResult.rejected(lineNumber, List.of("Malformed JSON: " + e.getOriginalMessage())));
+            }
+            if (orderRequest != null) {
+                List<String> errors = validate(orderRequest);
+                if (errors.isEmpty()) {
+                    chunk.add(new PendingOrder(lineNumber, orderRequest));
+                } else {
+                    results.add(BulkOrderResult.rejected(lineNumber, errors));
+                }
+            }
+            if (chunk.size() + results.size() == CHUNK_SIZE) {
+                persistChunk(chunk, results);
+                writeResults(results, out);
+            }
+        }
+        persistChunk(chunk, results);
+        writeResults(results, out);
+    }
+    
+    private void writeResults(List<BulkOrderResult> results, OutputStream out) throws IOException {
+        results.sort(Comparator.comparingInt(BulkOrderResult::getLine));
+        for (BulkOrderResult result : results) {
+            resultWriter.writeValue(out, result);
+            out.write('\n');
+        }
+        out.flush();
+        results.clear();
+    }
+    
+    private List<String> validate(OrderRequest orderRequest) {
+        Set<ConstraintViolation<OrderRequest>> violations = validator.validate(orderRequest);
+        List<String> errors = new ArrayList<>(violations.size());
+        for (ConstraintViolation<OrderRequest> violation : violations) {
+            errors.add(violation.getPropertyPath() + ": " + violation.getMessage());
+        }
+        if (errors.isEmpty()) {
+            PriceIndex priceIndex = productService.getPriceIndex();
+            List<OrderItemRequest> items = orderRequest.getItems();
+            for (int i = 0; i < items.size(); i++) {
+                if (!priceIndex.contains(items.get(i).getProductId())) {
+                    errors.add("items[" + i + "].productId: Unknown product");
+                }
+            }
+        }
+        return errors;
+    }
+    
+    // Persists a chunk in one transaction; if the chunk fails, falls back to one transaction
+    // per order so a single bad row only rejects its own line.
+    private void persistChunk(List<PendingOrder> chunk, List<BulkOrderResult> results) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        try {
+            List<Long> ids = persist(chunk);
+            for (int i = 0; i < chunk.size(); i++) {
+                results.add(BulkOrderResult.created(chunk.get(i).line(), ids.get(i)));
+            }
+        } catch (DataAccessException | InvalidOrderException e) {
+            entityManager.clear();
+            for (PendingOrder pending : chunk) {
+                try {
+                    results.add(BulkOrderResult.created(pending.line(), persist(List.of(pending)).get(0)));
+                } catch (DataAccessException rowFailure) {
+                    entityManager.clear();
+                    results.add(BulkOrderResult.rejected(pending.line(), List.of(rowFailure.getMostSpecificCause().getMessage())));
+                } catch (InvalidOrderException rowFailure) {
+                    entityManager.clear();
+                    results.add(BulkOrderResult.rejected(pending.line(), List.of(rowFailure.getMessage())));
+                }
+            }
+        }
+        chunk.clear();
+    }
+    
+    private List<Long> persist(List<PendingOrder> pendingOrders) {
+        List<Long> ids = transactionTemplate.execute(status -> {
+            List<Order> orders = new ArrayList<>(pendingOrders.size());
+            for (PendingOrder pending : pendingOrders) {
+                Order order = orderService.toOrder(pending.request());
+                inventoryService.reserveForTransaction(order);
+                orders.add(order);
+            }
+            orderRepository.saveAll(orders);
+            entityManager.flush();
+            entityManager.clear();
+            List<Long> orderIds = new ArrayList<>(orders.size());
+            for (Order order : orders) {
+                orderIds.add(order.getId());
+                salesAnalytics.recordAfterCommit(order);
+            }
+            return orderIds;
+        });
+        ordersPlaced.increment(ids.size());
+        return ids;
+    }
+    
+    private record PendingOrder(int line, OrderRequest request) {
+    }
+}
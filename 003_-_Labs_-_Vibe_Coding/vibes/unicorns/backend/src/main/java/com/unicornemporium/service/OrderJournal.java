@@ -0,0 +1,238 @@
+package com.unicornemporium.service;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.zip.CRC32C;
+
+// Append-only journal file. Appends are queued and written by a single sync thread that forces
+// the channel once per group, so concurrent appends share one fsync. A record is
+// [int payload length][long sequence][int CRC32C of payload][payload]; a torn or corrupt tail
+// left by a crash is cut off when the journal is opened. Before the file is rolled, the highest
+// sequence issued so far is recorded in a side file, so sequences keep increasing across restarts
+// even when the last entries never reached the database.
+final class OrderJournal implements Closeable {
+
+    private static final int HEADER_SIZE = Integer.BYTES + Long.BYTES + Integer.BYTES;
+    private static final int MAX_GROUP_SIZE = 1024;
+    // Once everything appended has been drained, the file is truncated before it grows past this
+    private static final long ROLL_SIZE = 64L * 1024 * 1024;
+
+    private final FileChannel channel;
+    private final Path sequenceFile;
+    private final long rollSize;
+    private final List<Entry> recovered;
+    private final Consumer<List<Entry>> onDurable;
+    private final BlockingQueue<PendingAppend> appends = new LinkedBlockingQueue<>();
+    private final Thread syncThread;
+    private volatile boolean closed;
+    private volatile long lastSequence;
+    private volatile long drainedSequence;
+
+    record Entry(long sequence, byte[] payload) {
+    }
+
+    private record PendingAppend(byte[] payload, CompletableFuture<Long> sequence) {
+    }
+
+    // Entries with a sequence above drainedSequence are kept for replay (see recovered()); every
+    // later append is handed to onDurable, in sequence order, once it has been forced to disk.
+    OrderJournal(Path file, long drainedSequence, Consumer<List<Entry>> onDurable) throws IOException {
+        this(file, drainedSequence, ROLL_SIZE, onDurable);
+    }
+
+    OrderJournal(Path file, long drainedSequence, long rollSize, Consumer<List<Entry>> onDurable) throws IOException {
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.sequenceFile = file.resolveSibling(file.getFileName() + ".sequence");
+        this.rollSize = rollSize;
+        this.recovered = new ArrayList<>();
+        this.drainedSequence = drainedSequence;
+        this.lastSequence = Math.max(drainedSequence, rolledSequence());
+        this.onDurable = onDurable;
+        recover();
+        this.syncThread = Thread.ofPlatform().name("order-journal-sync").start(this::syncLoop);
+    }
+
+    List<Entry> recovered() {
+        return recovered;
+    }
+
+    long lastSequence() {
+        return lastSequence;
+    }
+
+    void markDrained(long sequence) {
+        drainedSequence = sequence;
+    }
+
+    // Completes with the record's sequence once it is durable, or exceptionally if the write failed.
+    CompletableFuture<Long> append(byte[] payload) {
+        CompletableFuture<Long> sequence = new CompletableFuture<>();
+        if (closed) {
+            sequence.completeExceptionally(new IllegalStateException("Order journal is closed"));
+            return sequence;
+        }
+        appends.add(new PendingAppend(payload, sequence));
+        return sequence;
+    }
+
+    private void recover() throws IOException {
+        long size = channel.size();
+        long position = 0;
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        while (position + HEADER_SIZE <= size) {
+            header.clear();
+            readFully(header, position);
+            header.flip();
+            int length = header.getInt();
+            long sequence = header.getLong();
+            int checksum = header.getInt();
+            if (length < 0 || position + HEADER_SIZE + length > size) {
+                break;
+            }
+            ByteBuffer payload = ByteBuffer.allocate(length);
+            readFully(payload, position + HEADER_SIZE);
+            if (checksum(payload.array()) != checksum) {
+                break;
+            }
+            if (sequence > drainedSequence) {
+                recovered.add(new Entry(sequence, payload.array()));
+            }
+            lastSequence = Math.max(lastSequence, sequence);
+            position += HEADER_SIZE + length;
+        }
+        if (position < size) {
+            channel.truncate(position);
+            channel.force(false);
+        }
+        channel.position(position);
+    }
+
+    private void readFully(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Unexpected end of order journal");
+            }
+        }
+    }
+
+    private void syncLoop() {
+        List<PendingAppend> group = new ArrayList<>(MAX_GROUP_SIZE);
+        while (!closed || !appends.isEmpty()) {
+            try {
+                PendingAppend first = appends.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                group.add(first);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            appends.drainTo(group, MAX_GROUP_SIZE - 1);
+            writeGroup(group);
+            group.clear();
+        }
+    }
+
+    private void writeGroup(List<PendingAppend> group) {
+        long start = -1;
+        try {
+            rollIfDrained();
+            start = channel.position();
+            ByteBuffer[] buffers = new ByteBuffer[group.size()];
+            List<Entry> entries = new ArrayList<>(group.size());
+            long sequence = lastSequence;
+            for (int i = 0; i < buffers.length; i++) {
+                byte[] payload = group.get(i).payload();
+                sequence++;
+                ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + payload.length);
+                buffer.putInt(payload.length).putLong(sequence).putInt(checksum(payload)).put(payload).flip();
+                buffers[i] = buffer;
+                entries.add(new Entry(sequence, payload));
+            }
+            while (buffers[buffers.length - 1].hasRemaining()) {
+                channel.write(buffers);
+            }
+            channel.force(false);
+            lastSequence = sequence;
+            onDurable.accept(entries);
+            for (int i = 0; i < entries.size(); i++) {
+                group.get(i).sequence().complete(entries.get(i).sequence());
+            }
+        } catch (IOException e) {
+            // Nothing in the group was acknowledged, so a partially written group is discarded
+            if (start >= 0) {
+                try {
+                    channel.truncate(start);
+                    channel.position(start);
+                } catch (IOException ignored) {
+                    // A torn tail is cut off on the next start
+                }
+            }
+            for (PendingAppend append : group) {
+                append.sequence().completeExceptionally(e);
+            }
+        }
+    }
+
+    private void rollIfDrained() throws IOException {
+        if (drainedSequence != lastSequence || channel.size() <= rollSize) {
+            return;
+        }
+        Path written = sequenceFile.resolveSibling(sequenceFile.getFileName() + ".tmp");
+        Files.write(written, Long.toString(lastSequence).getBytes(StandardCharsets.US_ASCII),
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE,
+                StandardOpenOption.SYNC);
+        Files.move(written, sequenceFile, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        channel.truncate(0);
+        channel.force(false);
+    }
+
+    private long rolledSequence() throws IOException {
+        if (!Files.exists(sequenceFile)) {
+            return 0;
+        }
+        return Long.parseLong(Files.readString(sequenceFile, StandardCharsets.US_ASCII).trim());
+    }
+
+    private static int checksum(byte[] payload) {
+        CRC32C crc = new CRC32C();
+        crc.update(payload);
+        return (int) crc.getValue();
+    }
+
+    // Writes every append queued so far, then closes the file, rolling it if it is fully drained.
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        try {
+            syncThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        PendingAppend rejected;
+        while ((rejected = appends.poll()) != null) {
+            rejected.sequence().completeExceptionally(new IllegalStateException("Order journal is closed"));
+        }
+        try {
+            rollIfDrained();
+        } finally {
+            channel.close();
+        }
+    }
+}
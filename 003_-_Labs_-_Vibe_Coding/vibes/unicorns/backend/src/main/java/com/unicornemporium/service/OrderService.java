@@ -1,57 +1,263 @@
 package com.unicornemporium.service;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.unicornemporium.dto.BulkStatusTransitionResult;
 import com.unicornemporium.dto.OrderItemRequest;
+import com.unicornemporium.dto.OrderItemView;
+import com.unicornemporium.dto.OrderPage;
 import com.unicornemporium.dto.OrderRequest;
 import com.unicornemporium.dto.OrderResponse;
+import com.unicornemporium.dto.OrderView;
 import com.unicornemporium.model.Order;
 import com.unicornemporium.model.OrderItem;
 import com.unicornemporium.repository.OrderRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 @Service
 public class OrderService {
     
+    private static final int MAX_PAGE_SIZE = 500;
+    private static final int STREAM_CHUNK_SIZE = 100;
+    // Ids per set-based status update, to keep the IN list of each statement bounded
+    private static final int TRANSITION_CHUNK_SIZE = 1000;
+    
     private final OrderRepository orderRepository;
+    private final ProductService productService;
+    private final ObjectMapper objectMapper;
+    private final InventoryService inventoryService;
+    private final SalesAnalyticsService salesAnalytics;
+    private final Counter ordersPlaced;
 
-    public OrderService(OrderRepository orderRepository) {
+    public OrderService(OrderRepository orderRepository, ProductService productService, InventoryService inventoryService,
+                        SalesAnalyticsService salesAnalytics, ObjectMapper objectMapper,
+                        MeterRegistry meterRegistry) {
         this.orderRepository = orderRepository;
+        this.productService = productService;
+        this.inventoryService = inventoryService;
+        this.salesAnalytics = salesAnalytics;
+        this.objectMapper = objectMapper;
+        this.ordersPlaced = Counter.builder("orders.placed")
+                .description("Orders persisted, by intake endpoint")
+                .tag("source", "api")
+                .register(meterRegistry);
     }
     
     @Transactional
     public OrderResponse createOrder(OrderRequest orderRequest) {
+        return createOrder(orderRequest, null);
+    }
+    
+    @Transactional
+    public OrderResponse createOrder(OrderRequest orderRequest, String idempotencyKey) {
+        Order order = toOrder(orderRequest);
+        order.setIdempotencyKey(idempotencyKey);
+        inventoryService.reserveForTransaction(order);
+        Order savedOrder = orderRepository.save(order);
+        salesAnalytics.recordAfterCommit(savedOrder);
+        ordersPlaced.increment();
+        return OrderResponse.fromOrder(savedOrder);
+    }
+    
+    // Item names, prices and the order total come from the catalog price index; the names, prices
+    // and total sent by the client are ignored.
+    Order toOrder(OrderRequest orderRequest) {
+        PriceIndex priceIndex = productService.getPriceIndex();
+        
         Order order = new Order();
         order.setCustomerName(orderRequest.getCustomerName());
         order.setCustomerEmail(orderRequest.getCustomerEmail());
         order.setDeliveryAddress(orderRequest.getDeliveryAddress());
         order.setDeliveryMethod(orderRequest.getDeliveryMethod());
-        order.setTotalAmount(orderRequest.getTotalAmount());
         
+        long totalAmountCents = 0;
         for (OrderItemRequest itemRequest : orderRequest.getItems()) {
+            int index = priceIndex.indexOf(itemRequest.getProductId());
+            if (index < 0) {
+                throw new InvalidOrderException("Unknown product: " + itemRequest.getProductId());
+            }
+            long price = priceIndex.priceAt(index);
             OrderItem orderItem = new OrderItem();
             orderItem.setProductId(itemRequest.getProductId());
-            orderItem.setProductName(itemRequest.getProductName());
+            orderItem.setProductName(priceIndex.nameAt(index));
             orderItem.setQuantity(itemRequest.getQuantity());
-            orderItem.setPrice(itemRequest.getPrice());
+            orderItem.setPriceCents(price);
             order.addItem(orderItem);
+            totalAmountCents = Math.addExact(totalAmountCents, Math.multiplyExact(price, itemRequest.getQuantity()));
         }
-        
-        Order savedOrder = orderRepository.save(order);
-        return OrderResponse.fromOrder(savedOrder);
+        order.setTotalAmountCents(totalAmountCents);
+        return order;
+    }
+    
+    // Moves one order to a new status. With an expected version, the transition only applies if
+    // nobody has changed the order since the client read it. Empty if the order does not exist.
+    @Transactional
+    public Optional<OrderResponse> transitionStatus(Long id, Order.OrderStatus status, Long expectedVersion) {
+        Optional<Order> found = orderRepository.findById(id);
+        if (found.isEmpty()) {
+            return Optional.empty();
+        }
+        Order order = found.get();
+        if (expectedVersion != null && !expectedVersion.equals(order.getVersion())) {
+            throw new ConcurrentOrderUpdateException(
+                    "Order " + id + " is at version " + order.getVersion() + ", not " + expectedVersion);
+        }
+        if (!order.getStatus().canTransitionTo(status)) {
+            throw new InvalidStatusTransitionException(
+                    "Order " + id + " cannot move from " + order.getStatus() + " to " + status);
+        }
+        order.setStatus(status);
+        try {
+            orderRepository.saveAndFlush(order);
+        } catch (OptimisticLockingFailureException e) {
+            throw new ConcurrentOrderUpdateException("Order " + id + " was changed concurrently");
+        }
+        if (status == Order.OrderStatus.CANCELLED) {
+            cancelled(List.of(id));
+        }
+        return Optional.of(OrderResponse.fromOrder(order));
     }
     
-    public Optional<Order> getOrderById(Long id) {
-        return orderRepository.findById(id);
+    // Moves many orders to a new status without loading them: each chunk of ids is one UPDATE
+    // restricted to the statuses the target can be reached from. Orders that do not exist or are
+    // in any other status are reported back; orders already in the target status are neither.
+    @Transactional
+    public BulkStatusTransitionResult transitionStatuses(List<Long> orderIds, Order.OrderStatus status) {
+        Set<Order.OrderStatus> from = status.predecessors();
+        List<Long> ids = new ArrayList<>(new LinkedHashSet<>(orderIds));
+        int updated = 0;
+        List<Long> rejected = new ArrayList<>();
+        for (int start = 0; start < ids.size(); start += TRANSITION_CHUNK_SIZE) {
+            List<Long> chunk = ids.subList(start, Math.min(start + TRANSITION_CHUNK_SIZE, ids.size()));
+            if (status == Order.OrderStatus.CANCELLED) {
+                // Cancelling returns stock, so the cancelled orders must be known exactly: their
+                // rows are locked before the update so no concurrent transition can slip in between
+                List<Long> cancellable = orderRepository.lockIdsByIdInAndStatusIn(chunk, from);
+                if (!cancellable.isEmpty()) {
+                    updated += orderRepository.updateStatus(cancellable, from, status);
+                    cancelled(cancellable);
+                }
+            } else if (!from.isEmpty()) {
+                updated += orderRepository.updateStatus(chunk, from, status);
+            }
+            Set<Long> inStatus = new HashSet<>(orderRepository.findIdsByIdInAndStatus(chunk, status));
+            for (Long id : chunk) {
+                if (!inStatus.contains(id)) {
+                    rejected.add(id);
+                }
+            }
+        }
+        return new BulkStatusTransitionResult(updated, rejected);
+    }
+    
+    // Returns the stock of cancelled orders and takes them out of the sales figures on commit.
+    private void cancelled(List<Long> orderIds) {
+        Map<Long, Long> quantities = new HashMap<>();
+        for (Object[] row : orderRepository.sumQuantitiesByProduct(orderIds)) {
+            quantities.put((Long) row[0], (Long) row[1]);
+        }
+        inventoryService.releaseAfterCommit(quantities);
+        salesAnalytics.recordCancellationsAfterCommit(orderIds);
+    }
+    
+    // Reads return OrderView projections: each is one constructor-expression query for the order
+    // headers plus one for their items, in a read-only transaction (no flush, no dirty checking)
+    // and without creating managed entities.
+    @Transactional(readOnly = true)
+    public Optional<OrderView> getOrderById(Long id) {
+        Optional<OrderView> order = orderRepository.findViewById(id);
+        order.ifPresent(view -> withItems(List.of(view)));
+        return order;
+    }
+    
+    // Keyset page: the orders after the cursor, then their items.
+    @Transactional(readOnly = true)
+    public OrderPage getOrdersPage(Long afterId, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        List<OrderView> orders = orderRepository.findViewsAfter(afterId == null ? 0L : afterId, Limit.of(pageSize));
+        if (orders.isEmpty()) {
+            return new OrderPage(List.of(), null);
+        }
+        withItems(orders);
+        Long nextCursor = orders.size() == pageSize ? orders.get(orders.size() - 1).getId() : null;
+        return new OrderPage(orders, nextCursor);
     }
     
-    public List<Order> getAllOrders() {
-        return orderRepository.findAll();
+    // Writes every order as one JSON array. Orders are read from a cursor and written in chunks,
+    // so the items of a whole chunk are fetched with one query and memory stays flat regardless
+    // of how many orders are streamed.
+    @Transactional(readOnly = true)
+    public void writeAllOrders(OutputStream outputStream) throws IOException {
+        try (Stream<OrderView> orders = orderRepository.streamAllViewsOrderedById();
+             JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+            generator.writeStartArray();
+            List<OrderView> chunk = new ArrayList<>(STREAM_CHUNK_SIZE);
+            Iterator<OrderView> iterator = orders.iterator();
+            while (iterator.hasNext()) {
+                chunk.add(iterator.next());
+                if (chunk.size() == STREAM_CHUNK_SIZE) {
+                    writeChunk(generator, chunk);
+                }
+            }
+            writeChunk(generator, chunk);
+            generator.writeEndArray();
+        }
+    }
+    
+    private void writeChunk(JsonGenerator generator, List<OrderView> chunk) throws IOException {
+        for (OrderView order : withItems(chunk)) {
+            generator.writeObject(order);
+        }
+        chunk.clear();
+    }
+    
+    // Newest-first page of a customer's orders, served from the (customer_email, order_date) index.
+    // The returned cursor is the next page number.
+    @Transactional(readOnly = true)
+    public OrderPage getOrdersByEmail(String email, int page, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        Slice<OrderView> orders = orderRepository.findViewsByCustomerEmailNewestFirst(
+                email, PageRequest.of(Math.max(page, 0), pageSize));
+        if (orders.isEmpty()) {
+            return new OrderPage(List.of(), null);
+        }
+        Long nextCursor = orders.hasNext() ? (long) orders.getNumber() + 1 : null;
+        return new OrderPage(withItems(orders.getContent()), nextCursor);
     }
     
-    public List<Order> getOrdersByEmail(String email) {
-        return orderRepository.findByCustomerEmail(email);
+    // Attaches the items of all the given orders, fetched with a single query.
+    List<OrderView> withItems(List<OrderView> orders) {
+        if (orders.isEmpty()) {
+            return orders;
+        }
+        Map<Long, OrderView> byId = new HashMap<>();
+        for (OrderView order : orders) {
+            byId.put(order.getId(), order);
+            order.setItems(new ArrayList<>());
+        }
+        for (OrderItemView item : orderRepository.findItemViewsByOrderIdIn(byId.keySet())) {
+            byId.get(item.getOrderId()).getItems().add(item);
+        }
+        return orders;
     }
 }
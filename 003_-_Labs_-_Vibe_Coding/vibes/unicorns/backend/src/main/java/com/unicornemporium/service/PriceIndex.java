@@ -0,0 +1,46 @@
+package com.unicornemporium.service;
+
+import com.unicornemporium.model.Product;
+
+import java.util.Arrays;
+import java.util.List;
+
+// Product id -> unit price in cents (and catalog name) over parallel arrays sorted by id, so pricing a cart
+// is a handful of binary searches with no boxing or database access. Lookups return the product's
+// position in the index, negative for unknown ids, so no price value has to double as a marker.
+final class PriceIndex {
+    
+    private final long[] productIds;
+    private final long[] prices;
+    private final String[] names;
+
+    // Expects products sorted by id, as held by CatalogSnapshot.
+    PriceIndex(List<Product> products) {
+        this.productIds = new long[products.size()];
+        this.prices = new long[products.size()];
+        this.names = new String[products.size()];
+        for (int i = 0; i < products.size(); i++) {
+            Product product = products.get(i);
+            productIds[i] = product.getId();
+            prices[i] = product.getPriceCents();
+            names[i] = product.getName();
+        }
+    }
+    
+    boolean contains(long productId) {
+        return indexOf(productId) >= 0;
+    }
+    
+    // Position of the product in the index, or a negative value if the id is unknown.
+    int indexOf(long productId) {
+        return Arrays.binarySearch(productIds, productId);
+    }
+    
+    long priceAt(int index) {
+        return prices[index];
+    }
+    
+    String nameAt(int index) {
+        return names[index];
+    }
+}
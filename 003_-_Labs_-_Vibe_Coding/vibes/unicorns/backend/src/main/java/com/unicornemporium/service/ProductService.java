@@ -1,34 +1,112 @@
 package com.unicornemporium.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.unicornemporium.dto.ProductQueryResult;
 import com.unicornemporium.model.Product;
 import com.unicornemporium.repository.ProductRepository;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.stereotype.Service;
 
+import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.locks.ReentrantLock;
 
 @Service
 public class ProductService {
     
+    private static final int MAX_SEARCH_RESULTS = 100;
+    
     private final ProductRepository productRepository;
+    private final CatalogEncoder encoder;
+    
+    // Catalog reads are served from this snapshot; writes replace it under catalogLock.
+    // A ReentrantLock rather than synchronized, so a virtual thread blocked on the database
+    // while holding it does not pin its carrier thread.
+    private final ReentrantLock catalogLock = new ReentrantLock();
+    private volatile CatalogSnapshot catalog;
 
-    public ProductService(ProductRepository productRepository) {
+    public ProductService(ProductRepository productRepository, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
         this.productRepository = productRepository;
+        this.encoder = new CatalogEncoder(objectMapper, meterRegistry);
     }
     
     public List<Product> getAllProducts() {
-        return productRepository.findAll();
+        return catalog().products();
     }
     
     public Optional<Product> getProductById(Long id) {
-        return productRepository.findById(id);
+        return catalog().product(id);
     }
     
     public List<Product> getProductsByCategory(String category) {
-        return productRepository.findByCategory(category);
+        return catalog().productsInCategory(category);
+    }
+    
+    // Ranked full-text search over name, features and description; query words also match as prefixes.
+    public List<Product> searchProducts(String query, int limit) {
+        return catalog().search(query, Math.max(1, Math.min(limit, MAX_SEARCH_RESULTS)));
+    }
+    
+    // Combined category / price range / feature filter with facet counts for the storefront sidebar.
+    // Price bounds are inclusive decimal amounts.
+    public ProductQueryResult queryProducts(List<String> categories, BigDecimal minPrice, BigDecimal maxPrice,
+                                            List<String> features) {
+        Long minPriceCents = minPrice == null ? null : minPrice.movePointRight(2).setScale(0, RoundingMode.CEILING).longValueExact();
+        Long maxPriceCents = maxPrice == null ? null : maxPrice.movePointRight(2).setScale(0, RoundingMode.FLOOR).longValueExact();
+        return catalog().facets().query(categories, minPriceCents, maxPriceCents, features);
+    }
+    
+    public CatalogPayload getAllProductsPayload(WireFormat format) {
+        return catalog().allProductsPayload(format, encoder);
+    }
+    
+    public Optional<CatalogPayload> getProductPayloadById(Long id, WireFormat format) {
+        return catalog().productPayload(id, format, encoder);
+    }
+    
+    public CatalogPayload getProductsPayloadByCategory(String category, WireFormat format) {
+        return catalog().categoryPayload(category, format, encoder);
+    }
+    
+    PriceIndex getPriceIndex() {
+        return catalog().priceIndex();
     }
     
     public Product createProduct(Product product) {
-        return productRepository.save(product);
+        catalogLock.lock();
+        try {
+            Product savedProduct = productRepository.save(product);
+            catalog = catalog().with(savedProduct);
+            return savedProduct;
+        } finally {
+            catalogLock.unlock();
+        }
+    }
+    
+    public void reloadCatalog() {
+        catalogLock.lock();
+        try {
+            catalog = CatalogSnapshot.of(productRepository.findAllWithFeaturesBy());
+        } finally {
+            catalogLock.unlock();
+        }
+    }
+    
+    private CatalogSnapshot catalog() {
+        CatalogSnapshot snapshot = catalog;
+        if (snapshot == null) {
+            catalogLock.lock();
+            try {
+                if (catalog == null) {
+                    reloadCatalog();
+                }
+                snapshot = catalog;
+            } finally {
+                catalogLock.unlock();
+            }
+        }
+        return snapshot;
     }
 }
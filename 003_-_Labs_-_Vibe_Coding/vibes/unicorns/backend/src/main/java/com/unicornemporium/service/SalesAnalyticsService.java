@@ -0,0 +1,191 @@
+package com.unicornemporium.service;
+
+import com.unicornemporium.dto.SalesReport;
+import com.unicornemporium.dto.SalesTotals;
+import com.unicornemporium.model.Order;
+import com.unicornemporium.model.OrderItem;
+import com.unicornemporium.model.Product;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+// Revenue and units sold per product, day and delivery method, maintained incrementally as
+// orders are committed. Accumulators are LongAdders, so concurrent checkouts never contend on
+// a lock, and a report costs the same regardless of how many orders exist. The aggregates are
+// rebuilt once at startup with grouped queries over the orders already in the database.
+// Cancelled orders are not counted. Delivery methods are free text in the order request, so
+// methods the checkout does not offer share one "other" bucket and the report stays bounded.
+@Service
+public class SalesAnalyticsService {
+
+    private static final int MAX_REPORT_DAYS = 366;
+    // The options of the checkout form
+    private static final Set<String> DELIVERY_METHODS = Set.of("rainbow-portal", "pegasus", "unicorn-carriage");
+    private static final String OTHER_DELIVERY_METHOD = "other";
+
+    private final EntityManager entityManager;
+    private final ProductService productService;
+    private final TransactionTemplate transactionTemplate;
+    private final LongAdder orders = new LongAdder();
+    private final Sales total = new Sales();
+    private final ConcurrentMap<Long, Sales> byProduct = new ConcurrentHashMap<>();
+    private final ConcurrentMap<LocalDate, Sales> byDay = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Sales> byDeliveryMethod = new ConcurrentHashMap<>();
+
+    public SalesAnalyticsService(EntityManager entityManager, ProductService productService,
+                                 PlatformTransactionManager transactionManager) {
+        this.entityManager = entityManager;
+        this.productService = productService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    @PostConstruct
+    void rebuild() {
+        transactionTemplate.executeWithoutResult(status -> {
+            orders.add(entityManager.createQuery(
+                    "select count(o) from Order o where o.status <> :cancelled", Long.class)
+                    .setParameter("cancelled", Order.OrderStatus.CANCELLED).getSingleResult());
+            for (Object[] row : entityManager.createQuery(
+                    "select i.productId, sum(i.priceCents * i.quantity), sum(i.quantity) "
+                    + "from OrderItem i join i.order o where o.status <> :cancelled group by i.productId",
+                    Object[].class).setParameter("cancelled", Order.OrderStatus.CANCELLED).getResultList()) {
+                sales(byProduct, (Long) row[0]).add((Long) row[1], (Long) row[2]);
+                total.add((Long) row[1], (Long) row[2]);
+            }
+            for (Object[] row : entityManager.createQuery(
+                    "select cast(o.orderDate as LocalDate), sum(i.priceCents * i.quantity), sum(i.quantity) "
+                    + "from OrderItem i join i.order o where o.status <> :cancelled group by cast(o.orderDate as LocalDate)",
+                    Object[].class).setParameter("cancelled", Order.OrderStatus.CANCELLED).getResultList()) {
+                sales(byDay, (LocalDate) row[0]).add((Long) row[1], (Long) row[2]);
+            }
+            for (Object[] row : entityManager.createQuery(
+                    "select o.deliveryMethod, sum(i.priceCents * i.quantity), sum(i.quantity) "
+                    + "from OrderItem i join i.order o where o.status <> :cancelled group by o.deliveryMethod",
+                    Object[].class).setParameter("cancelled", Order.OrderStatus.CANCELLED).getResultList()) {
+                sales(byDeliveryMethod, deliveryMethodBucket((String) row[0])).add((Long) row[1], (Long) row[2]);
+            }
+        });
+    }
+
+    // Counts the order once the surrounding transaction commits, or right away outside one.
+    void recordAfterCommit(Order order) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            record(order);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                record(order);
+            }
+        });
+    }
+
+    // Takes the orders back out of the aggregates once the surrounding transaction commits. Their
+    // sales are read with one grouped query inside the transaction.
+    void recordCancellationsAfterCommit(Collection<Long> orderIds) {
+        List<Object[]> rows = entityManager.createQuery(
+                "select i.productId, cast(o.orderDate as LocalDate), o.deliveryMethod, "
+                + "sum(i.priceCents * i.quantity), sum(i.quantity) from OrderItem i join i.order o where o.id in :ids "
+                + "group by i.productId, cast(o.orderDate as LocalDate), o.deliveryMethod",
+                Object[].class).setParameter("ids", orderIds).getResultList();
+        int orderCount = orderIds.size();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                for (Object[] row : rows) {
+                    long revenue = -(Long) row[3];
+                    long units = -(Long) row[4];
+                    sales(byProduct, (Long) row[0]).add(revenue, units);
+                    sales(byDay, (LocalDate) row[1]).add(revenue, units);
+                    sales(byDeliveryMethod, deliveryMethodBucket((String) row[2])).add(revenue, units);
+                    total.add(revenue, units);
+                }
+                orders.add(-orderCount);
+            }
+        });
+    }
+
+    private void record(Order order) {
+        Sales day = sales(byDay, order.getOrderDate().toLocalDate());
+        Sales deliveryMethod = sales(byDeliveryMethod, deliveryMethodBucket(order.getDeliveryMethod()));
+        for (OrderItem item : order.getItems()) {
+            long revenue = Math.multiplyExact(item.getPriceCents(), item.getQuantity());
+            long units = item.getQuantity();
+            sales(byProduct, item.getProductId()).add(revenue, units);
+            day.add(revenue, units);
+            deliveryMethod.add(revenue, units);
+            total.add(revenue, units);
+        }
+        orders.increment();
+    }
+
+    // Totals overall, per product, per category, per delivery method, and per day for the last
+    // `days` days (today included; days without sales are left out).
+    public SalesReport getReport(int days) {
+        Map<Long, SalesTotals> products = snapshot(new TreeMap<>(byProduct));
+        Map<String, SalesTotals> categories = new TreeMap<>();
+        products.forEach((productId, sales) -> {
+            String category = productService.getProductById(productId).map(Product::getCategory).orElse("unknown");
+            categories.merge(category, sales, (a, b) ->
+                    new SalesTotals(a.getRevenueCents() + b.getRevenueCents(), a.getUnits() + b.getUnits()));
+        });
+        Map<LocalDate, SalesTotals> recentDays = new LinkedHashMap<>();
+        LocalDate today = LocalDate.now();
+        int dayCount = Math.max(1, Math.min(days, MAX_REPORT_DAYS));
+        for (LocalDate day = today.minusDays(dayCount - 1); !day.isAfter(today); day = day.plusDays(1)) {
+            Sales sales = byDay.get(day);
+            if (sales != null) {
+                recentDays.put(day, sales.totals());
+            }
+        }
+        return new SalesReport(orders.sum(), total.totals(), products, categories, recentDays,
+                snapshot(new TreeMap<>(byDeliveryMethod)));
+    }
+
+    private static String deliveryMethodBucket(String deliveryMethod) {
+        return DELIVERY_METHODS.contains(deliveryMethod) ? deliveryMethod : OTHER_DELIVERY_METHOD;
+    }
+
+    private static <K> Map<K, SalesTotals> snapshot(Map<K, Sales> sales) {
+        Map<K, SalesTotals> totals = new LinkedHashMap<>();
+        sales.forEach((key, value) -> totals.put(key, value.totals()));
+        return totals;
+    }
+
+    private static <K> Sales sales(ConcurrentMap<K, Sales> map, K key) {
+        Sales sales = map.get(key);
+        return sales != null ? sales : map.computeIfAbsent(key, k -> new Sales());
+    }
+
+    private static final class Sales {
+
+        private final LongAdder revenueCents = new LongAdder();
+        private final LongAdder units = new LongAdder();
+
+        void add(long revenue, long unitCount) {
+            revenueCents.add(revenue);
+            units.add(unitCount);
+        }
+
+        SalesTotals totals() {
+            return new SalesTotals(revenueCents.sum(), units.sum());
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package com.unicornemporium.service;
+
+import com.unicornemporium.model.Product;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+
+// Immutable inverted index over product name, features and description. Terms are kept sorted,
+// so a query term also matches every indexed term it is a prefix of. A product is a hit when it
+// matches every query term; hits are ranked by field weight and inverse document frequency.
+final class SearchIndex {
+
+    static final SearchIndex EMPTY = new SearchIndex(new TreeMap<>(), 0);
+
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final int NAME_WEIGHT = 4;
+    private static final int FEATURE_WEIGHT = 2;
+    private static final int DESCRIPTION_WEIGHT = 1;
+    // A prefix match scores half of an exact match
+    private static final double PREFIX_FACTOR = 0.5;
+
+    private final NavigableMap<String, Postings> terms;
+    private final int documentCount;
+
+    private SearchIndex(NavigableMap<String, Postings> terms, int documentCount) {
+        this.terms = terms;
+        this.documentCount = documentCount;
+    }
+
+    static SearchIndex of(Collection<Product> products) {
+        Map<String, Map<Long, Integer>> weights = new HashMap<>();
+        for (Product product : products) {
+            termWeights(product).forEach((term, weight) ->
+                    weights.computeIfAbsent(term, t -> new HashMap<>()).put(product.getId(), weight));
+        }
+        NavigableMap<String, Postings> terms = new TreeMap<>();
+        weights.forEach((term, byProduct) -> terms.put(term, Postings.of(byProduct)));
+        return new SearchIndex(terms, products.size());
+    }
+
+    // Index with one product added or replaced. Only the postings of the terms of the old and
+    // new versions of the product are rebuilt.
+    SearchIndex with(Product product, Product replaced) {
+        NavigableMap<String, Postings> updated = new TreeMap<>(terms);
+        if (replaced != null) {
+            for (String term : termWeights(replaced).keySet()) {
+                Postings postings = updated.get(term).without(replaced.getId());
+                if (postings.isEmpty()) {
+                    updated.remove(term);
+                } else {
+                    updated.put(term, postings);
+                }
+            }
+        }
+        termWeights(product).forEach((term, weight) ->
+                updated.merge(term, Postings.of(Map.of(product.getId(), weight)),
+                        (existing, added) -> existing.with(product.getId(), weight)));
+        return new SearchIndex(updated, replaced == null ? documentCount + 1 : documentCount);
+    }
+
+    // Ids of the best matching products, best first; ties are broken by id.
+    List<Long> search(String query, int limit) {
+        List<String> queryTerms = tokenize(query);
+        if (queryTerms.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        Map<Long, Double> scores = null;
+        for (String queryTerm : queryTerms) {
+            Map<Long, Double> termScores = score(queryTerm);
+            if (scores == null) {
+                scores = termScores;
+            } else {
+                scores.keySet().retainAll(termScores.keySet());
+                scores.replaceAll((id, score) -> score + termScores.get(id));
+            }
+            if (scores.isEmpty()) {
+                return List.of();
+            }
+        }
+        return scores.entrySet().stream()
+                .sorted(Map.Entry.<Long, Double>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+                .limit(limit)
+                .map(Map.Entry::getKey)
+                .toList();
+    }
+
+    private Map<Long, Double> score(String queryTerm) {
+        Map<Long, Double> scores = new HashMap<>();
+        for (Map.Entry<String, Postings> entry : terms.subMap(queryTerm, true, queryTerm + Character.MAX_VALUE, false).entrySet()) {
+            Postings postings = entry.getValue();
+            double idf = Math.log(1 + (double) documentCount / postings.productIds.length);
+            double factor = entry.getKey().equals(queryTerm) ? idf : idf * PREFIX_FACTOR;
+            for (int i = 0; i < postings.productIds.length; i++) {
+                scores.merge(postings.productIds[i], postings.weights[i] * factor, Math::max);
+            }
+        }
+        return scores;
+    }
+
+    static List<String> tokenize(String text) {
+        if (text == null) {
+            return List.of();
+        }
+        List<String> tokens = new ArrayList<>();
+        for (String token : SEPARATORS.split(text.toLowerCase(Locale.ROOT))) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    private static Map<String, Integer> termWeights(Product product) {
+        Map<String, Integer> weights = new HashMap<>();
+        for (String token : tokenize(product.getName())) {
+            weights.merge(token, NAME_WEIGHT, Integer::sum);
+        }
+        if (product.getFeatures() != null) {
+            for (String feature : product.getFeatures()) {
+                for (String token : tokenize(feature)) {
+                    weights.merge(token, FEATURE_WEIGHT, Integer::sum);
+                }
+            }
+        }
+        for (String token : tokenize(product.getDescription())) {
+            weights.merge(token, DESCRIPTION_WEIGHT, Integer::sum);
+        }
+        return weights;
+    }
+
+    // Product ids in ascending order, with the term's weight in each product.
+    private static final class Postings {
+
+        private final long[] productIds;
+        private final int[] weights;
+
+        private Postings(long[] productIds, int[] weights) {
+            this.productIds = productIds;
+            this.weights = weights;
+        }
+
+        static Postings of(Map<Long, Integer> weightsByProduct) {
+            long[] productIds = new long[weightsByProduct.size()];
+            int i = 0;
+            for (Long productId : weightsByProduct.keySet()) {
+                productIds[i++] = productId;
+            }
+            Arrays.sort(productIds);
+            int[] weights = new int[productIds.length];
+            for (i = 0; i < productIds.length; i++) {
+                weights[i] = weightsByProduct.get(productIds[i]);
+            }
+            return new Postings(productIds, weights);
+        }
+
+        boolean isEmpty() {
+            return productIds.length == 0;
+        }
+
+        Postings with(long productId, int weight) {
+            int index = Arrays.binarySearch(productIds, productId);
+            if (index >= 0) {
+                int[] updatedWeights = weights.clone();
+                updatedWeights[index] = weight;
+                return new Postings(productIds, updatedWeights);
+            }
+            int insertAt = -index - 1;
+            long[] updatedIds = new long[productIds.length + 1];
+            int[] updatedWeights = new int[productIds.length + 1];
+            System.arraycopy(productIds, 0, updatedIds, 0, insertAt);
+            System.arraycopy(weights, 0, updatedWeights, 0, insertAt);
+            updatedIds[insertAt] = productId;
+            updatedWeights[insertAt] = weight;
+            System.arraycopy(productIds, insertAt, updatedIds, insertAt + 1, productIds.length - insertAt);
+            System.arraycopy(weights, insertAt, updatedWeights, insertAt + 1, productIds.length - insertAt);
+            return new Postings(updatedIds, updatedWeights);
+        }
+
+        Postings without(long productId) {
+            int index = Arrays.binarySearch(productIds, productId);
+            if (index < 0) {
+                return this;
+            }
+            long[] updatedIds = new long[productIds.length - 1];
+            int[] updatedWeights = new int[productIds.length - 1];
+            System.arraycopy(productIds, 0, updatedIds, 0, index);
+            System.arraycopy(weights, 0, updatedWeights, 0, index);
+            System.arraycopy(productIds, index + 1, updatedIds, index, productIds.length - index - 1);
+            System.arraycopy(weights, index + 1, updatedWeights, index, productIds.length - index - 1);
+            return new Postings(updatedIds, updatedWeights);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.unicornemporium.service;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Stock counter for one product, split into stripes so concurrent buyers of a hot product CAS
+// different cache lines instead of queueing on one counter or row lock. A reservation no single
+// stripe can cover takes the lock and pools every stripe, so it only fails when the total is
+// short. Every decrement is a CAS that keeps its stripe non-negative, so stock never oversells.
+final class StripedStock {
+    
+    private static final int STRIPES = Math.min(64, Integer.highestOneBit(Runtime.getRuntime().availableProcessors() * 2 - 1));
+    // Stripes are this many longs apart so each sits on its own cache line
+    private static final int SPACING = 8;
+    
+    private final AtomicLongArray cells = new AtomicLongArray(STRIPES * SPACING);
+    private final ReentrantLock lock = new ReentrantLock();
+
+    StripedStock(long available) {
+        spread(available);
+    }
+    
+    boolean tryReserve(long quantity) {
+        int start = ThreadLocalRandom.current().nextInt(STRIPES);
+        for (int i = 0; i < STRIPES; i++) {
+            int cell = ((start + i) & (STRIPES - 1)) * SPACING;
+            long value;
+            while ((value = cells.get(cell)) >= quantity) {
+                if (cells.compareAndSet(cell, value, value - quantity)) {
+                    return true;
+                }
+            }
+        }
+        return tryReservePooled(quantity);
+    }
+    
+    void release(long quantity) {
+        cells.getAndAdd(ThreadLocalRandom.current().nextInt(STRIPES) * SPACING, quantity);
+    }
+    
+    void set(long available) {
+        lock.lock();
+        try {
+            drain();
+            spread(available);
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    long available() {
+        long available = 0;
+        for (int i = 0; i < STRIPES; i++) {
+            available += cells.get(i * SPACING);
+        }
+        return available;
+    }
+    
+    private boolean tryReservePooled(long quantity) {
+        lock.lock();
+        try {
+            long pooled = drain();
+            boolean reserved = pooled >= quantity;
+            spread(reserved ? pooled - quantity : pooled);
+            return reserved;
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    private long drain() {
+        long drained = 0;
+        for (int i = 0; i < STRIPES; i++) {
+            drained += cells.getAndSet(i * SPACING, 0);
+        }
+        return drained;
+    }
+    
+    private void spread(long available) {
+        long share = available / STRIPES;
+        long remainder = available % STRIPES;
+        for (int i = 0; i < STRIPES; i++) {
+            cells.getAndAdd(i * SPACING, share + (i < remainder ? 1 : 0));
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.unicornemporium.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.util.MimeTypeUtils;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+// Encodings every endpoint can exchange. The binary formats carry the same data model as JSON
+// and are produced by the same ObjectMapper configuration, only with a different token factory.
+public enum WireFormat {
+    JSON(MediaType.APPLICATION_JSON),
+    CBOR(MediaType.APPLICATION_CBOR),
+    SMILE(new MediaType("application", "x-jackson-smile"));
+
+    private final MediaType mediaType;
+
+    WireFormat(MediaType mediaType) {
+        this.mediaType = mediaType;
+    }
+
+    public MediaType getMediaType() {
+        return mediaType;
+    }
+
+    public ObjectMapper mapper(ObjectMapper jsonMapper) {
+        return switch (this) {
+            case JSON -> jsonMapper;
+            case CBOR -> jsonMapper.copyWith(new CBORFactory());
+            case SMILE -> jsonMapper.copyWith(new SmileFactory());
+        };
+    }
+
+    // The client's most preferred format per the Accept header; JSON if it names none of them.
+    // Types sent with q=0 are refused outright, the rest are tried by quality, then specificity.
+    public static WireFormat forAccept(String accept) {
+        if (accept == null) {
+            return JSON;
+        }
+        List<MediaType> accepted;
+        try {
+            accepted = MediaType.parseMediaTypes(accept);
+        } catch (InvalidMediaTypeException e) {
+            return JSON;
+        }
+        accepted = new ArrayList<>(accepted);
+        accepted.removeIf(mediaType -> mediaType.getQualityValue() == 0);
+        MimeTypeUtils.sortBySpecificity(accepted);
+        // List.sort is stable, so types of equal quality keep their specificity order
+        accepted.sort(Comparator.comparingDouble(MediaType::getQualityValue).reversed());
+        for (MediaType mediaType : accepted) {
+            for (WireFormat format : values()) {
+                if (mediaType.equalsTypeAndSubtype(format.mediaType)) {
+                    return format;
+                }
+            }
+        }
+        return JSON;
+    }
+}
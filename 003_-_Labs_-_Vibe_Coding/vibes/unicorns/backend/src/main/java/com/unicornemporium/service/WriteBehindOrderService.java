@@ -0,0 +1,398 @@
+package com.unicornemporium.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.unicornemporium.dto.OrderReceipt;
+import com.unicornemporium.dto.OrderRequest;
+import com.unicornemporium.dto.OrderView;
+import com.unicornemporium.model.Order;
+import com.unicornemporium.model.OrderItem;
+import com.unicornemporium.repository.OrderRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.NonTransientDataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+// Write-behind checkout: a priced order is acknowledged as soon as it is durable in the order
+// journal, and a background writer drains the journal into the orders tables in batched
+// transactions. Each persisted order records its journal sequence, so on startup every journal
+// entry above the highest persisted sequence is replayed, also under lazy initialization.
+// An entry the database keeps rejecting is split out of its batch and moved to a dead-letter
+// file next to the journal, so it cannot hold up the entries behind it.
+// Idempotency-Keys are journaled with their orders and stored in orders.idempotency_key, so a
+// retry past the TTL or after a restart finds the original order instead of placing a second one.
+@Service
+@Lazy(false)
+@ConditionalOnProperty(name = "unicorn.orders.write-behind.enabled", havingValue = "true")
+public class WriteBehindOrderService {
+
+    private static final Logger log = LoggerFactory.getLogger(WriteBehindOrderService.class);
+    private static final int BATCH_SIZE = 500;
+    private static final long MAX_RETRY_DELAY_MILLIS = 5000;
+
+    private final OrderService orderService;
+    private final OrderRepository orderRepository;
+    private final InventoryService inventoryService;
+    private final SalesAnalyticsService salesAnalytics;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectWriter orderWriter;
+    private final ObjectReader orderReader;
+    private final Path journalFile;
+    private final Path deadLetterFile;
+    private final Counter ordersPlaced;
+    private final Counter ordersDeadLettered;
+    private final IdempotencyCache<OrderReceipt> receipts;
+    private final BlockingQueue<OrderJournal.Entry> backlog = new LinkedBlockingQueue<>();
+    // Replayed entries whose stock could not be reserved again; they are persisted regardless
+    private final Set<Long> unreserved = new HashSet<>();
+    // Idempotency-Keys of replayed entries, by key, until the entry is persisted or dead-lettered
+    private final ConcurrentMap<String, OrderReceipt> replayedKeys = new ConcurrentHashMap<>();
+    private OrderJournal journal;
+    private Thread writerThread;
+    private volatile boolean running;
+    private volatile long drainedSequence;
+
+    public WriteBehindOrderService(OrderService orderService, OrderRepository orderRepository,
+                                   InventoryService inventoryService, SalesAnalyticsService salesAnalytics,
+                                   EntityManager entityManager,
+                                   PlatformTransactionManager transactionManager, ObjectMapper objectMapper,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${unicorn.orders.journal.dir}") Path journalDir,
+                                   @Value("${unicorn.orders.idempotency.ttl}") Duration idempotencyTtl,
+                                   @Value("${unicorn.orders.idempotency.max-keys}") long maxIdempotencyKeys) {
+        this.orderService = orderService;
+        this.orderRepository = orderRepository;
+        this.inventoryService = inventoryService;
+        this.salesAnalytics = salesAnalytics;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.orderWriter = objectMapper.writerFor(Order.class);
+        this.orderReader = objectMapper.readerFor(Order.class);
+        this.journalFile = journalDir.resolve("orders.journal");
+        this.deadLetterFile = journalDir.resolve("orders.dead-letter");
+        this.ordersPlaced = Counter.builder("orders.placed")
+                .description("Orders persisted, by intake endpoint")
+                .tag("source", "journal")
+                .register(meterRegistry);
+        this.ordersDeadLettered = Counter.builder("orders.journal.dead-lettered")
+                .description("Journaled orders the database rejected, moved to the dead-letter file")
+                .register(meterRegistry);
+        this.receipts = new IdempotencyCache<>(idempotencyTtl, maxIdempotencyKeys, objectMapper, meterRegistry);
+        Gauge.builder("orders.journal.backlog", backlog, BlockingQueue::size)
+                .description("Journaled orders not yet written to the database")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void start() throws IOException {
+        Long persisted = orderRepository.findMaxJournalSequence();
+        drainedSequence = persisted == null ? 0 : persisted;
+        journal = new OrderJournal(journalFile, drainedSequence, backlog::addAll);
+        Set<Long> deadLettered = deadLetteredSequences();
+        List<OrderJournal.Entry> replayed = journal.recovered().stream()
+                .filter(entry -> !deadLettered.contains(entry.sequence()))
+                .toList();
+        // Dead-lettered entries at the tail are done too, although the database never saw them
+        drainedSequence = replayed.isEmpty() ? journal.lastSequence() : replayed.get(0).sequence() - 1;
+        journal.markDrained(drainedSequence);
+        if (!replayed.isEmpty()) {
+            log.info("Replaying {} journaled orders not yet in the database", replayed.size());
+            // products.stock only counts persisted orders, so the replayed ones are reserved again
+            // before any new order can be accepted
+            for (OrderJournal.Entry entry : replayed) {
+                Order order = readOrder(entry);
+                if (order == null) {
+                    continue;
+                }
+                if (order.getIdempotencyKey() != null) {
+                    replayedKeys.put(order.getIdempotencyKey(), receipt(entry.sequence(), order));
+                }
+                try {
+                    inventoryService.reserveJournaled(order);
+                } catch (OutOfStockException e) {
+                    log.warn("Replayed journal entry {} persisted without a stock reservation: {}",
+                            entry.sequence(), e.getMessage());
+                    unreserved.add(entry.sequence());
+                }
+            }
+            backlog.addAll(replayed);
+        }
+        running = true;
+        writerThread = Thread.ofPlatform().name("order-journal-writer").start(this::drainLoop);
+    }
+
+    // Retries within the TTL get the original receipt from memory. Past it, or after a restart,
+    // the key is looked up among the replayed entries and then in the database. Orders placed
+    // through the transactional API have no receipt; a retry for one of those is journaled and
+    // resolved to the existing order when it is drained.
+    public OrderReceipt acceptOrder(OrderRequest orderRequest, String idempotencyKey) {
+        return receipts.execute(idempotencyKey, orderRequest, () -> {
+            OrderReceipt replayed = replayedKeys.get(idempotencyKey);
+            if (replayed != null) {
+                return replayed;
+            }
+            return orderRepository.findByIdempotencyKey(idempotencyKey)
+                    .filter(order -> order.getJournalSequence() != null)
+                    .map(order -> receipt(order.getJournalSequence(), order))
+                    .orElseGet(() -> accept(orderRequest, idempotencyKey));
+        });
+    }
+    
+    public OrderReceipt acceptOrder(OrderRequest orderRequest) {
+        return accept(orderRequest, null);
+    }
+    
+    private OrderReceipt accept(OrderRequest orderRequest, String idempotencyKey) {
+        Order order = orderService.toOrder(orderRequest);
+        order.setIdempotencyKey(idempotencyKey);
+        order.setOrderDate(LocalDateTime.now());
+        order.setStatus(Order.OrderStatus.PENDING);
+        // Stock is reserved at acceptance; the journal guarantees the order is eventually persisted
+        inventoryService.reserveJournaled(order);
+        long sequence;
+        try {
+            sequence = journal.append(orderWriter.writeValueAsBytes(order)).join();
+        } catch (IOException e) {
+            inventoryService.releaseJournaled(order);
+            throw new UncheckedIOException(e);
+        } catch (CompletionException e) {
+            inventoryService.releaseJournaled(order);
+            throw new IllegalStateException("Order journal write failed", e.getCause());
+        }
+        return receipt(sequence, order);
+    }
+    
+    private static OrderReceipt receipt(long sequence, Order order) {
+        return new OrderReceipt(sequence, order.getCustomerEmail(), order.getTotalAmountCents(), order.getOrderDate());
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<OrderView> getOrderByReceipt(long receiptId) {
+        Optional<OrderView> order = orderRepository.findViewByJournalSequence(receiptId);
+        order.ifPresent(view -> orderService.withItems(List.of(view)));
+        return order;
+    }
+
+    // Accepted and durable, but not yet written to the database.
+    public boolean isPending(long receiptId) {
+        return receiptId > drainedSequence && receiptId <= journal.lastSequence();
+    }
+
+    private void drainLoop() {
+        List<OrderJournal.Entry> batch = new ArrayList<>(BATCH_SIZE);
+        while (running || !backlog.isEmpty()) {
+            try {
+                OrderJournal.Entry first = backlog.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            backlog.drainTo(batch, BATCH_SIZE - 1);
+            if (!persistWithRetry(batch)) {
+                return;
+            }
+            batch.clear();
+        }
+    }
+
+    // Retries a failed batch with backoff until it commits. Entries are never dropped: if the
+    // service stops first, they stay in the journal and are replayed on the next start.
+    private boolean persistWithRetry(List<OrderJournal.Entry> batch) {
+        long delay = 100;
+        while (true) {
+            try {
+                persistIsolatingRejects(batch);
+                return true;
+            } catch (RuntimeException e) {
+                if (!running) {
+                    log.warn("Stopping with {} journaled orders not yet persisted", batch.size() + backlog.size(), e);
+                    return false;
+                }
+                log.warn("Persisting {} journaled orders failed, retrying in {} ms", batch.size(), delay, e);
+                try {
+                    Thread.sleep(delay);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+                delay = Math.min(delay * 2, MAX_RETRY_DELAY_MILLIS);
+            }
+        }
+    }
+
+    // A batch the database rejects as invalid is halved until the rejected entries stand alone,
+    // like OrderIngestService isolates bad rows. Transient failures propagate to be retried.
+    private void persistIsolatingRejects(List<OrderJournal.Entry> batch) {
+        try {
+            persist(batch);
+        } catch (NonTransientDataAccessException e) {
+            if (batch.size() == 1) {
+                if (!(e instanceof DataIntegrityViolationException) || !resolveDuplicate(batch.get(0))) {
+                    deadLetter(batch.get(0), e);
+                }
+                return;
+            }
+            int half = batch.size() / 2;
+            persistIsolatingRejects(batch.subList(0, half));
+            persistIsolatingRejects(batch.subList(half, batch.size()));
+        }
+    }
+
+    // Entries already drained, e.g. by part of a split batch before a retry, are skipped.
+    private void persist(List<OrderJournal.Entry> batch) {
+        List<Order> orders = new ArrayList<>(batch.size());
+        for (OrderJournal.Entry entry : batch) {
+            Order order = entry.sequence() > drainedSequence ? readOrder(entry) : null;
+            if (order != null) {
+                orders.add(order);
+            }
+        }
+        List<Order> reserved = orders.stream()
+                .filter(order -> !unreserved.contains(order.getJournalSequence()))
+                .toList();
+        transactionTemplate.executeWithoutResult(status -> {
+            for (Order order : orders) {
+                entityManager.persist(order);
+                salesAnalytics.recordAfterCommit(order);
+            }
+            inventoryService.persistJournaled(reserved);
+        });
+        orders.forEach(order -> {
+            unreserved.remove(order.getJournalSequence());
+            forgetReplayedKey(order);
+        });
+        markDrained(batch.get(batch.size() - 1).sequence());
+        ordersPlaced.increment(orders.size());
+    }
+
+    // Appends the entry as "<sequence> <payload>" to the dead-letter file and hands back its stock.
+    private void deadLetter(OrderJournal.Entry entry, RuntimeException cause) {
+        log.error("Journal entry {} rejected by the database, moving it to {}", entry.sequence(), deadLetterFile, cause);
+        try {
+            byte[] line = (entry.sequence() + " " + new String(entry.payload(), StandardCharsets.UTF_8) + "\n")
+                    .getBytes(StandardCharsets.UTF_8);
+            Files.write(deadLetterFile, line, StandardOpenOption.CREATE, StandardOpenOption.APPEND, StandardOpenOption.SYNC);
+        } catch (IOException e) {
+            // Still in the journal, so it is tried again after a restart
+            throw new UncheckedIOException(e);
+        }
+        discard(entry);
+        ordersDeadLettered.increment();
+    }
+
+    // An entry whose Idempotency-Key is already in the database repeats an order placed earlier,
+    // e.g. by another instance or through the transactional API. It is dropped, not dead-lettered.
+    private boolean resolveDuplicate(OrderJournal.Entry entry) {
+        Order order = readOrder(entry);
+        if (order == null || order.getIdempotencyKey() == null) {
+            return false;
+        }
+        Optional<Order> existing = orderRepository.findByIdempotencyKey(order.getIdempotencyKey());
+        if (existing.isEmpty()) {
+            return false;
+        }
+        log.info("Journal entry {} repeats the Idempotency-Key of order {}, dropping it",
+                entry.sequence(), existing.get().getId());
+        discard(entry);
+        return true;
+    }
+
+    // Hands back the stock of an entry that will not be persisted and moves past it.
+    private void discard(OrderJournal.Entry entry) {
+        Order order = readOrder(entry);
+        if (order != null) {
+            if (!unreserved.remove(entry.sequence())) {
+                inventoryService.releaseJournaled(order);
+            }
+            forgetReplayedKey(order);
+        }
+        markDrained(entry.sequence());
+    }
+
+    private void forgetReplayedKey(Order order) {
+        if (order.getIdempotencyKey() != null) {
+            replayedKeys.computeIfPresent(order.getIdempotencyKey(), (key, receipt) ->
+                    receipt.getReceiptId() == order.getJournalSequence() ? null : receipt);
+        }
+    }
+
+    private void markDrained(long sequence) {
+        drainedSequence = sequence;
+        journal.markDrained(sequence);
+    }
+
+    private Set<Long> deadLetteredSequences() throws IOException {
+        if (!Files.exists(deadLetterFile)) {
+            return Set.of();
+        }
+        try (Stream<String> lines = Files.lines(deadLetterFile, StandardCharsets.UTF_8)) {
+            return lines.filter(line -> !line.isBlank())
+                    .map(line -> Long.valueOf(line.substring(0, line.indexOf(' '))))
+                    .collect(Collectors.toSet());
+        }
+    }
+
+    private Order readOrder(OrderJournal.Entry entry) {
+        try {
+            Order order = orderReader.readValue(entry.payload());
+            order.setJournalSequence(entry.sequence());
+            for (OrderItem item : order.getItems()) {
+                item.setOrder(order);
+            }
+            return order;
+        } catch (IOException e) {
+            log.error("Skipping unreadable journal entry {}", entry.sequence(), e);
+            return null;
+        }
+    }
+
+    // Flushes queued appends, then gives the writer a bounded time to drain the backlog.
+    @PreDestroy
+    void stop() throws IOException, InterruptedException {
+        journal.close();
+        running = false;
+        writerThread.join(TimeUnit.SECONDS.toMillis(30));
+        writerThread.interrupt();
+    }
+}
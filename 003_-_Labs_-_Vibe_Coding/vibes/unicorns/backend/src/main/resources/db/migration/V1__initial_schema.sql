@@ -0,0 +1,46 @@
+-- Initial schema for the persistent profile (mirrors the JPA mappings in com.unicornemporium.model)
+
+CREATE TABLE products (
+    id          BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name        VARCHAR(255)  NOT NULL,
+    price_cents BIGINT        NOT NULL,
+    category    VARCHAR(255)  NOT NULL,
+    image       VARCHAR(255)  NOT NULL,
+    description VARCHAR(1000)
+);
+
+CREATE TABLE product_features (
+    product_id BIGINT NOT NULL,
+    feature    VARCHAR(255),
+    CONSTRAINT fk_product_features_product FOREIGN KEY (product_id) REFERENCES products (id)
+);
+
+CREATE INDEX idx_product_features_product_id ON product_features (product_id);
+
+CREATE SEQUENCE orders_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE order_items_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE orders (
+    id                 BIGINT       NOT NULL PRIMARY KEY,
+    customer_name      VARCHAR(255) NOT NULL,
+    customer_email     VARCHAR(255) NOT NULL,
+    delivery_address   VARCHAR(500) NOT NULL,
+    delivery_method    VARCHAR(255) NOT NULL,
+    total_amount_cents BIGINT       NOT NULL,
+    order_date         TIMESTAMP(6) NOT NULL,
+    status             VARCHAR(50)  NOT NULL
+);
+
+CREATE INDEX idx_orders_customer_email_order_date ON orders (customer_email, order_date);
+
+CREATE TABLE order_items (
+    id           BIGINT       NOT NULL PRIMARY KEY,
+    order_id     BIGINT       NOT NULL,
+    product_id   BIGINT       NOT NULL,
+    product_name VARCHAR(255) NOT NULL,
+    quantity     INTEGER      NOT NULL,
+    price_cents  BIGINT       NOT NULL,
+    CONSTRAINT fk_order_items_order FOREIGN KEY (order_id) REFERENCES orders (id)
+);
+
+CREATE INDEX idx_order_items_order_id ON order_items (order_id);
@@ -0,0 +1,5 @@
+-- Journal sequence of orders accepted through the write-behind journal; used for crash recovery
+
+ALTER TABLE orders ADD COLUMN journal_sequence BIGINT;
+
+CREATE UNIQUE INDEX idx_orders_journal_sequence ON orders (journal_sequence);
@@ -0,0 +1,5 @@
+-- Idempotency-Key of the request that created the order; retried requests resolve to the same order
+
+ALTER TABLE orders ADD COLUMN idempotency_key VARCHAR(255);
+
+CREATE UNIQUE INDEX idx_orders_idempotency_key ON orders (idempotency_key);
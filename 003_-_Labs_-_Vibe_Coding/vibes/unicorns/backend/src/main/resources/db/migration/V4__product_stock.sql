@@ -0,0 +1,3 @@
+-- Units in stock per product; NULL means stock is not tracked
+
+ALTER TABLE products ADD COLUMN stock INTEGER;
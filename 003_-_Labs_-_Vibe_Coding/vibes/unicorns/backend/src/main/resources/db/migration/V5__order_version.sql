@@ -0,0 +1,3 @@
+-- Optimistic locking version of each order, incremented on every update
+
+ALTER TABLE orders ADD COLUMN version BIGINT DEFAULT 0 NOT NULL;
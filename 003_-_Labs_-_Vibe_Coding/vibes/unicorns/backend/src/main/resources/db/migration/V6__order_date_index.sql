@@ -0,0 +1,3 @@
+-- Order history exports read orders by order date range
+
+CREATE INDEX idx_orders_order_date ON orders (order_date);
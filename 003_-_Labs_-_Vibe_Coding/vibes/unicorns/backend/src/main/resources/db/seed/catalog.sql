@@ -0,0 +1,26 @@
+-- Initial catalog, loaded by DataInitializer into an empty products table. Rare unicorns are
+-- sold from limited stock; the rest are not stock-tracked (null stock).
+INSERT INTO products (id, name, price_cents, category, image, description, stock) VALUES
+    (1, 'Sparkle Supreme', 999900, 'classic', '🦄', 'A classic white unicorn with a golden horn and the ability to grant wishes', NULL),
+    (2, 'Rainbow Dash', 1299900, 'rainbow', '🌈', 'Creates rainbows wherever it goes. Perfect for parties and special events', NULL),
+    (3, 'Celestial Star', 1599900, 'celestial', '⭐', 'Born from stardust with cosmic powers. Glows beautifully at night', NULL),
+    (4, 'Mystic Moon', 1499900, 'celestial', '🌙', 'Silver-maned beauty with lunar powers. Guards dreams and prevents nightmares', NULL),
+    (5, 'Fire Phoenix', 1899900, 'rare', '🔥', 'Rare fire unicorn with phoenix-like abilities. Can be reborn from flames', 3),
+    (6, 'Crystal Princess', 1199900, 'classic', '💎', 'Adorned with magical crystals. Her mane sparkles like diamonds', NULL),
+    (7, 'Thunder Strike', 1699900, 'rare', '⚡', 'Commands thunder and lightning. Protects against dark forces', 5),
+    (8, 'Bubble Bliss', 1099900, 'rainbow', '🫧', 'Creates magical bubbles that carry joy and laughter. Perfect for children', NULL),
+    (9, 'Cherry Blossom', 1399900, 'rainbow', '🌸', 'Spring unicorn that makes flowers bloom. Brings new life wherever she walks', NULL);
+
+INSERT INTO product_features (product_id, feature) VALUES
+    (1, 'Wish Granting'), (1, 'Night Vision'), (1, 'Gentle Temperament'),
+    (2, 'Rainbow Creation'), (2, 'Super Speed'), (2, 'Weather Control'),
+    (3, 'Starlight Aura'), (3, 'Teleportation'), (3, 'Cosmic Wisdom'),
+    (4, 'Dream Protection'), (4, 'Moonbeam'), (4, 'Peaceful Presence'),
+    (5, 'Fire Immunity'), (5, 'Rebirth'), (5, 'Heat Generation'),
+    (6, 'Crystal Magic'), (6, 'Healing Powers'), (6, 'Royal Lineage'),
+    (7, 'Lightning Control'), (7, 'Storm Summoning'), (7, 'Electric Speed'),
+    (8, 'Bubble Magic'), (8, 'Joy Aura'), (8, 'Gentle Nature'),
+    (9, 'Flower Growth'), (9, 'Spring Magic'), (9, 'Healing Touch');
+
+-- Products created later must not collide with the explicit ids above
+ALTER TABLE products ALTER COLUMN id RESTART WITH 10;
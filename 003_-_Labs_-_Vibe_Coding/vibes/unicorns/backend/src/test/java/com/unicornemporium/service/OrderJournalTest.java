@@ -0,0 +1,67 @@
+package com.unicornemporium.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Journal restarts where the database knows fewer sequences than the journal issued, as after
+// the last entries of a run were dead-lettered.
+class OrderJournalTest {
+
+    @TempDir
+    private Path dir;
+
+    @Test
+    void sequencesContinueAfterDeadLetteredTailWasRolled() throws IOException {
+        Path file = dir.resolve("orders.journal");
+        try (OrderJournal journal = new OrderJournal(file, 0, 0, entries -> {
+        })) {
+            assertThat(append(journal, "persisted")).isEqualTo(1);
+            assertThat(append(journal, "dead-lettered")).isEqualTo(2);
+            assertThat(append(journal, "dead-lettered too")).isEqualTo(3);
+            journal.markDrained(3);
+        }
+        assertThat(Files.size(file)).isZero();
+
+        // Only the first entry reached the database
+        try (OrderJournal journal = new OrderJournal(file, 1, 0, entries -> {
+        })) {
+            assertThat(journal.recovered()).isEmpty();
+            assertThat(journal.lastSequence()).isEqualTo(3);
+            assertThat(append(journal, "next")).isEqualTo(4);
+        }
+    }
+
+    @Test
+    void undrainedEntriesWrittenAfterARollAreReplayed() throws IOException {
+        Path file = dir.resolve("orders.journal");
+        try (OrderJournal journal = new OrderJournal(file, 0, 0, entries -> {
+        })) {
+            append(journal, "persisted");
+            journal.markDrained(1);
+            // Rolls the drained entry away before this one is written
+            append(journal, "pending");
+        }
+
+        try (OrderJournal journal = new OrderJournal(file, 1, 0, entries -> {
+        })) {
+            assertThat(journal.recovered())
+                    .singleElement()
+                    .satisfies(entry -> {
+                        assertThat(entry.sequence()).isEqualTo(2);
+                        assertThat(new String(entry.payload(), StandardCharsets.UTF_8)).isEqualTo("pending");
+                    });
+            assertThat(append(journal, "next")).isEqualTo(3);
+        }
+    }
+
+    private static long append(OrderJournal journal, String payload) {
+        return journal.append(payload.getBytes(StandardCharsets.UTF_8)).join();
+    }
+}
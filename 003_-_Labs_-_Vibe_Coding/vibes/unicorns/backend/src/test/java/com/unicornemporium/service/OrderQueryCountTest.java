@@ -0,0 +1,84 @@
+package com.unicornemporium.service;
+
+import com.unicornemporium.dto.OrderItemRequest;
+import com.unicornemporium.dto.OrderPage;
+import com.unicornemporium.dto.OrderRequest;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Order listings fetch orders and then all their items with one query, so the number of
+// statements does not grow with the number of orders returned.
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "spring.datasource.url=jdbc:h2:mem:order-query-count",
+        "spring.jpa.show-sql=false"
+})
+class OrderQueryCountTest {
+
+    private static final String EMAIL = "counted@example.com";
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.execute("delete from order_items");
+        jdbcTemplate.execute("delete from orders");
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void orderPageRunsTwoStatementsRegardlessOfOrderCount() {
+        placeOrders(5);
+        assertThat(statementsFor(() -> orderService.getOrdersPage(null, 500))).isEqualTo(2);
+
+        placeOrders(295);
+        assertThat(statementsFor(() -> orderService.getOrdersPage(null, 500))).isEqualTo(2);
+        assertThat(orderService.getOrdersPage(null, 500).getOrders())
+                .hasSize(300)
+                .allSatisfy(order -> assertThat(order.getItems()).hasSize(3));
+    }
+
+    @Test
+    void emailPageRunsTwoStatementsRegardlessOfOrderCount() {
+        placeOrders(5);
+        assertThat(statementsFor(() -> orderService.getOrdersByEmail(EMAIL, 0, 500))).isEqualTo(2);
+
+        placeOrders(295);
+        assertThat(statementsFor(() -> orderService.getOrdersByEmail(EMAIL, 0, 500))).isEqualTo(2);
+    }
+
+    private long statementsFor(Runnable listing) {
+        statistics.clear();
+        listing.run();
+        return statistics.getPrepareStatementCount();
+    }
+
+    // Products 1-3 are not stock-tracked, so orders never sell out.
+    private void placeOrders(int count) {
+        List<OrderItemRequest> items = List.of(
+                new OrderItemRequest(1L, "Sparkle Supreme", 1, null),
+                new OrderItemRequest(2L, "Rainbow Dash", 2, null),
+                new OrderItemRequest(3L, "Celestial Star", 1, null));
+        for (int i = 0; i < count; i++) {
+            orderService.createOrder(new OrderRequest("Counted Buyer", EMAIL, "1 Query Lane", "standard", null, items));
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.unicornemporium.service;
+
+import com.unicornemporium.dto.OrderItemRequest;
+import com.unicornemporium.dto.OrderRequest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// More buyers than stock racing for one product: exactly the stock's worth of orders succeed and
+// the count never drops below zero, through the transactional API path and the write-behind path.
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "spring.datasource.url=jdbc:h2:mem:stock-reservation",
+        "spring.jpa.show-sql=false",
+        "unicorn.orders.write-behind.enabled=true"
+})
+class StockReservationConcurrencyTest {
+
+    private static final int BUYERS = 64;
+    private static final long STOCK = 20;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private WriteBehindOrderService writeBehindOrderService;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @DynamicPropertySource
+    static void journal(DynamicPropertyRegistry registry) throws IOException {
+        String journalDir = Files.createTempDirectory("order-journal").toString();
+        registry.add("unicorn.orders.journal.dir", () -> journalDir);
+    }
+
+    @Test
+    void apiCheckoutSellsExactlyTheStock() throws Exception {
+        assertSellsExactlyTheStock(5, orderService::createOrder);
+    }
+
+    @Test
+    void writeBehindCheckoutSellsExactlyTheStock() throws Exception {
+        assertSellsExactlyTheStock(7, writeBehindOrderService::acceptOrder);
+    }
+
+    private void assertSellsExactlyTheStock(long productId, Consumer<OrderRequest> checkout) throws Exception {
+        inventoryService.setStock(productId, STOCK);
+        OrderRequest order = new OrderRequest("Racing Buyer", "race@example.com", "1 Contention Court", "standard", null,
+                List.of(new OrderItemRequest(productId, "Any name", 1, null)));
+
+        AtomicLong lowest = new AtomicLong(STOCK);
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService buyers = Executors.newFixedThreadPool(BUYERS);
+        List<Future<Boolean>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < BUYERS; i++) {
+                results.add(buyers.submit(() -> {
+                    start.await();
+                    try {
+                        checkout.accept(order);
+                        return true;
+                    } catch (OutOfStockException e) {
+                        return false;
+                    } finally {
+                        lowest.accumulateAndGet(inventoryService.getAvailable(productId).orElseThrow(), Math::min);
+                    }
+                }));
+            }
+            start.countDown();
+            int sold = 0;
+            for (Future<Boolean> result : results) {
+                if (result.get()) {
+                    sold++;
+                }
+            }
+            assertThat(sold).isEqualTo(STOCK);
+        } finally {
+            buyers.shutdownNow();
+        }
+
+        assertThat(lowest.get()).isZero();
+        assertThat(inventoryService.getAvailable(productId)).contains(0L);
+
+        // Write-behind orders reach the database asynchronously, together with their stock level
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (persistedOrders(productId) < STOCK && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+        }
+        assertThat(persistedOrders(productId)).isEqualTo(STOCK);
+        inventoryService.flush();
+        assertThat(jdbcTemplate.queryForObject("select stock from products where id = ?", Long.class, productId))
+                .isZero();
+    }
+
+    private long persistedOrders(long productId) {
+        return jdbcTemplate.queryForObject("select count(*) from order_items where product_id = ?", Long.class, productId);
+    }
+}
@@ -0,0 +1,168 @@
+package com.unicornemporium.service;
+
+import com.unicornemporium.dto.OrderItemRequest;
+import com.unicornemporium.dto.OrderReceipt;
+import com.unicornemporium.dto.OrderRequest;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SimpleDriverDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Write-behind checkout against a file-backed database and journal in a fresh directory. Before
+// the context starts, the database is migrated and seeded as by an earlier run, and the journal is
+// given one entry as if that run had crashed before the writer persisted it. Idempotency-Keys
+// expire from memory after a second, so retries past the TTL can be checked.
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = "unicorn.orders.idempotency.ttl=1s")
+@ActiveProfiles({"persistent", "write-behind"})
+class WriteBehindOrderServiceTest {
+
+    // Catalog product seeded with a stock of 5
+    private static final long TRACKED_PRODUCT = 7;
+    // Catalog product seeded with a stock of 3, bought twice by the replayed order
+    private static final long REPLAYED_PRODUCT = 5;
+    private static final String REPLAYED_ORDER = """
+            {"customerName":"Crashed Buyer","customerEmail":"crash@example.com","deliveryAddress":"1 Replay Road",
+             "deliveryMethod":"standard","totalAmount":1.00,"orderDate":"2026-01-01T10:00:00","status":"PENDING",
+             "idempotencyKey":"replayed-key",
+             "items":[{"productId":5,"productName":"Replayed","quantity":2,"price":0.50}]}
+            """;
+
+    private static Path dataDir;
+
+    @Autowired
+    private WriteBehindOrderService writeBehindOrderService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @DynamicPropertySource
+    static void previousRun(DynamicPropertyRegistry registry) throws IOException {
+        dataDir = Files.createTempDirectory("write-behind");
+        DataSource dataSource = new SimpleDriverDataSource(new org.h2.Driver(),
+                "jdbc:h2:file:" + dataDir.resolve("unicorndb"), "sa", "");
+        Flyway.configure().dataSource(dataSource).load().migrate();
+        new ResourceDatabasePopulator(new ClassPathResource("db/seed/catalog.sql")).execute(dataSource);
+        try (OrderJournal journal = new OrderJournal(dataDir.resolve("journal/orders.journal"), 0, entries -> {
+        })) {
+            journal.append(REPLAYED_ORDER.getBytes(StandardCharsets.UTF_8)).join();
+        }
+        registry.add("unicorn.data-dir", dataDir::toString);
+    }
+
+    @Test
+    void replayedOrderReservesItsStockAgain() {
+        await(() -> writeBehindOrderService.getOrderByReceipt(1).isPresent());
+        assertThat(inventoryService.getAvailable(REPLAYED_PRODUCT)).contains(1L);
+        // Written in the transaction that persisted the order
+        assertThat(jdbcTemplate.queryForObject("select stock from products where id = ?", Long.class, REPLAYED_PRODUCT))
+                .isEqualTo(1);
+    }
+
+    @Test
+    void retryOfAReplayedOrderGetsItsReceipt() {
+        assertThat(writeBehindOrderService.acceptOrder(order("1 Retry Road"), "replayed-key").getReceiptId())
+                .isEqualTo(1);
+        await(() -> writeBehindOrderService.getOrderByReceipt(1).isPresent());
+        assertThat(ordersWithKey("replayed-key")).isEqualTo(1);
+    }
+
+    @Test
+    void retryPastTheTtlFindsThePersistedOrder() throws InterruptedException {
+        OrderReceipt first = writeBehindOrderService.acceptOrder(order("1 Retry Road"), "late-retry");
+        await(() -> !writeBehindOrderService.isPending(first.getReceiptId()));
+        Thread.sleep(1500);
+
+        OrderReceipt retry = writeBehindOrderService.acceptOrder(order("1 Retry Road"), "late-retry");
+        assertThat(retry.getReceiptId()).isEqualTo(first.getReceiptId());
+        assertThat(ordersWithKey("late-retry")).isEqualTo(1);
+    }
+
+    @Test
+    void journaledDuplicateOfAnApiOrderIsDroppedNotDeadLettered() throws IOException {
+        // Placed through the transactional API, so it has no receipt to answer a retry with
+        orderService.createOrder(order("1 Api Avenue"), "api-key");
+        long stockBefore = inventoryService.getAvailable(TRACKED_PRODUCT).orElseThrow();
+
+        OrderReceipt duplicate = writeBehindOrderService.acceptOrder(order("1 Api Avenue"), "api-key");
+        await(() -> !writeBehindOrderService.isPending(duplicate.getReceiptId()));
+
+        assertThat(ordersWithKey("api-key")).isEqualTo(1);
+        assertThat(writeBehindOrderService.getOrderByReceipt(duplicate.getReceiptId())).isEmpty();
+        Path deadLetters = dataDir.resolve("journal/orders.dead-letter");
+        if (Files.exists(deadLetters)) {
+            assertThat(Files.readAllLines(deadLetters))
+                    .noneSatisfy(line -> assertThat(line).startsWith(duplicate.getReceiptId() + " "));
+        }
+        assertThat(inventoryService.getAvailable(TRACKED_PRODUCT)).contains(stockBefore);
+    }
+
+    @Test
+    void rejectedOrderIsDeadLetteredWhileTheRestOfTheJournalDrains() throws IOException {
+        long stockBefore = inventoryService.getAvailable(TRACKED_PRODUCT).orElseThrow();
+
+        OrderReceipt before = writeBehindOrderService.acceptOrder(order("1 Journal Lane"));
+        // Longer than the 500 characters of orders.delivery_address; only request validation stops it
+        OrderReceipt rejected = writeBehindOrderService.acceptOrder(order("x".repeat(600)));
+        OrderReceipt after = writeBehindOrderService.acceptOrder(order("2 Journal Lane"));
+
+        await(() -> !writeBehindOrderService.isPending(after.getReceiptId()));
+        assertThat(writeBehindOrderService.getOrderByReceipt(before.getReceiptId())).isPresent();
+        assertThat(writeBehindOrderService.getOrderByReceipt(rejected.getReceiptId())).isEmpty();
+        assertThat(writeBehindOrderService.getOrderByReceipt(after.getReceiptId())).isPresent();
+        assertThat(Files.readAllLines(dataDir.resolve("journal/orders.dead-letter")))
+                .anySatisfy(line -> assertThat(line).startsWith(rejected.getReceiptId() + " "));
+
+        // The rejected order's reservation is handed back, in memory and in products.stock
+        assertThat(inventoryService.getAvailable(TRACKED_PRODUCT)).contains(stockBefore - 2);
+        inventoryService.flush();
+        assertThat(jdbcTemplate.queryForObject("select stock from products where id = ?", Long.class, TRACKED_PRODUCT))
+                .isEqualTo(stockBefore - 2);
+    }
+
+    private long ordersWithKey(String idempotencyKey) {
+        return jdbcTemplate.queryForObject("select count(*) from orders where idempotency_key = ?", Long.class,
+                idempotencyKey);
+    }
+
+    private static OrderRequest order(String deliveryAddress) {
+        return new OrderRequest("Journal Buyer", "journal@example.com", deliveryAddress, "standard", null,
+                List.of(new OrderItemRequest(TRACKED_PRODUCT, "Any name", 1, null)));
+    }
+
+    private static void await(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + Duration.ofSeconds(30).toNanos();
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("condition met within 30s").isLessThan(deadline);
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.unicornemporium.benchmarks;
+
+import com.unicornemporium.UnicornEmporiumApplication;
+import com.unicornemporium.dto.OrderItemRequest;
+import com.unicornemporium.dto.OrderRequest;
+import com.unicornemporium.service.InventoryService;
+import org.springframework.boot.Banner;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+// Boots the backend without a web server against a fresh embedded H2 database, either in-memory
+// or file-backed through the persistent profile. Extra arguments override application properties.
+final class BackendContext {
+
+    private BackendContext() {
+    }
+    
+    static ConfigurableApplicationContext start(String databaseName) {
+        return start(databaseName, "memory");
+    }
+    
+    static ConfigurableApplicationContext start(String databaseName, String store, String... overrides) {
+        SpringApplicationBuilder builder = new SpringApplicationBuilder(UnicornEmporiumApplication.class)
+                .web(WebApplicationType.NONE)
+                .bannerMode(Banner.Mode.OFF)
+                .logStartupInfo(false);
+        ConfigurableApplicationContext context;
+        if ("persistent".equals(store)) {
+            Path dataDir = freshDataDir(databaseName);
+            context = builder.profiles("persistent")
+                    .run(withOverrides(overrides,
+                            "--unicorn.data-dir=" + dataDir,
+                            "--logging.level.root=WARN"));
+        } else {
+            context = builder.run(withOverrides(overrides,
+                    "--spring.datasource.url=jdbc:h2:mem:" + databaseName,
+                    "--spring.jpa.show-sql=false",
+                    "--spring.h2.console.enabled=false",
+                    "--logging.level.root=WARN"));
+        }
+        untrackStock(context);
+        return context;
+    }
+    
+    private static String[] withOverrides(String[] overrides, String... args) {
+        String[] all = Arrays.copyOf(args, args.length + overrides.length);
+        System.arraycopy(overrides, 0, all, args.length, overrides.length);
+        return all;
+    }
+    
+    // The seeded rare unicorns have limited stock; benchmarks that place orders must not sell out.
+    private static void untrackStock(ConfigurableApplicationContext context) {
+        InventoryService inventoryService = context.getBean(InventoryService.class);
+        for (long productId = 1; productId <= 9; productId++) {
+            inventoryService.setStock(productId, null);
+        }
+    }
+    
+    private static Path freshDataDir(String databaseName) {
+        Path dataDir = Path.of("target", "benchmark-data", databaseName).toAbsolutePath();
+        try {
+            if (Files.exists(dataDir)) {
+                try (Stream<Path> paths = Files.walk(dataDir)) {
+                    for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                        Files.delete(path);
+                    }
+                }
+            }
+            return Files.createDirectories(dataDir);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    static void clearOrders(ConfigurableApplicationContext context) {
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        jdbcTemplate.execute("delete from order_items");
+        jdbcTemplate.execute("delete from orders");
+    }
+    
+    // Seeded catalog ids are 1-9; items cycle through them.
+    static OrderRequest orderRequest(String customerEmail, int itemCount) {
+        List<OrderItemRequest> items = new ArrayList<>(itemCount);
+        for (int i = 0; i < itemCount; i++) {
+            items.add(new OrderItemRequest((long) (i % 9) + 1, "Unicorn " + i, 1, null));
+        }
+        return new OrderRequest("Benchmark Buyer", customerEmail, "1 Benchmark Way", "standard", null, items);
+    }
+}
@@ -0,0 +1,53 @@
+package com.unicornemporium.benchmarks;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.unicornemporium.model.Product;
+import com.unicornemporium.service.ProductService;
+import com.unicornemporium.service.WireFormat;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Catalog reads: Jackson serialization of Product versus the pre-encoded payload, and category lookup.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class CatalogBenchmark {
+    
+    private ConfigurableApplicationContext context;
+    private ProductService productService;
+    private ObjectMapper objectMapper;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BackendContext.start("catalog");
+        productService = context.getBean(ProductService.class);
+        objectMapper = context.getBean(ObjectMapper.class);
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+    
+    @Benchmark
+    public byte[] serializeCatalog() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(productService.getAllProducts());
+    }
+    
+    @Benchmark
+    public byte[] encodedCatalog() {
+        return productService.getAllProductsPayload(WireFormat.JSON).getBody();
+    }
+    
+    @Benchmark
+    public List<Product> categoryLookup() {
+        return productService.getProductsByCategory("rare");
+    }
+}
@@ -0,0 +1,134 @@
+package com.unicornemporium.benchmarks;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+
+// Closed-loop HTTP load against a running server, for comparing the servlet backend (8080)
+// with the reactive variant (8081) on the same endpoints. Each of `concurrency` virtual-thread
+// clients sends its next request as soon as the previous one completes; after a warmup the
+// throughput and latency percentiles of each scenario are printed.
+//   args: <base url> [concurrency=64] [seconds per scenario=20] [scenario...]
+public class HttpLoadTest {
+
+    private static final Duration WARMUP = Duration.ofSeconds(5);
+    private static final String ORDER = """
+            {"customerName":"Load Test","customerEmail":"load%d@example.com","deliveryAddress":"1 Rainbow Road",
+             "deliveryMethod":"standard","items":[{"productId":%d,"productName":"Unicorn","quantity":1}]}""";
+
+    enum Scenario {
+        // Non-rare products only, so stock never runs out on the backend
+        CREATE_ORDER(base -> HttpRequest.newBuilder(URI.create(base + "/api/orders"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(ORDER.formatted(
+                        ThreadLocalRandom.current().nextInt(1000), ThreadLocalRandom.current().nextBoolean() ? 2 : 8)))),
+        ORDER_PAGE(base -> HttpRequest.newBuilder(URI.create(base + "/api/orders?limit=50"))),
+        ORDERS_BY_EMAIL(base -> HttpRequest.newBuilder(URI.create(
+                base + "/api/orders/email/load" + ThreadLocalRandom.current().nextInt(1000) + "@example.com"))),
+        CATALOG(base -> HttpRequest.newBuilder(URI.create(base + "/api/products")));
+
+        private final Function<String, HttpRequest.Builder> request;
+
+        Scenario(Function<String, HttpRequest.Builder> request) {
+            this.request = request;
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length == 0) {
+            System.err.println("usage: HttpLoadTest <base url> [concurrency] [seconds] [scenario...]");
+            System.exit(2);
+        }
+        String base = args[0];
+        int concurrency = args.length > 1 ? Integer.parseInt(args[1]) : 64;
+        Duration duration = Duration.ofSeconds(args.length > 2 ? Integer.parseInt(args[2]) : 20);
+        List<Scenario> scenarios = args.length > 3
+                ? Arrays.stream(args, 3, args.length).map(name -> Scenario.valueOf(name.toUpperCase())).toList()
+                : List.of(Scenario.values());
+
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+        System.out.printf("%s, %d concurrent clients, %ds per scenario%n", base, concurrency, duration.toSeconds());
+        System.out.printf("%-16s %10s %9s %9s %9s %9s %7s%n", "scenario", "req/s", "p50 ms", "p99 ms", "p999 ms", "max ms", "errors");
+        for (Scenario scenario : scenarios) {
+            run(client, base, scenario, concurrency, WARMUP);
+            Result result = run(client, base, scenario, concurrency, duration);
+            long[] latencies = result.latencies();
+            System.out.printf("%-16s %10.0f %9.2f %9.2f %9.2f %9.2f %7d%n", scenario.name().toLowerCase(),
+                    latencies.length / (double) duration.toNanos() * 1e9, millis(percentile(latencies, 0.5)),
+                    millis(percentile(latencies, 0.99)), millis(percentile(latencies, 0.999)),
+                    millis(latencies.length == 0 ? 0 : latencies[latencies.length - 1]), result.errors());
+        }
+    }
+
+    private static Result run(HttpClient client, String base, Scenario scenario, int concurrency, Duration duration)
+            throws Exception {
+        long deadline = System.nanoTime() + duration.toNanos();
+        List<Future<Result>> workers = new ArrayList<>(concurrency);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < concurrency; i++) {
+                workers.add(executor.submit(() -> {
+                    long[] latencies = new long[1024];
+                    int count = 0;
+                    long errors = 0;
+                    while (System.nanoTime() < deadline) {
+                        HttpRequest request = scenario.request.apply(base).timeout(Duration.ofSeconds(30)).build();
+                        long start = System.nanoTime();
+                        try {
+                            HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+                            if (response.statusCode() >= 400) {
+                                errors++;
+                                continue;
+                            }
+                        } catch (Exception e) {
+                            errors++;
+                            continue;
+                        }
+                        if (count == latencies.length) {
+                            latencies = Arrays.copyOf(latencies, count * 2);
+                        }
+                        latencies[count++] = System.nanoTime() - start;
+                    }
+                    return new Result(Arrays.copyOf(latencies, count), errors);
+                }));
+            }
+        }
+        long[] all = new long[0];
+        long errors = 0;
+        for (Future<Result> worker : workers) {
+            Result result = worker.get();
+            int offset = all.length;
+            all = Arrays.copyOf(all, offset + result.latencies().length);
+            System.arraycopy(result.latencies(), 0, all, offset, result.latencies().length);
+            errors += result.errors();
+        }
+        Arrays.sort(all);
+        return new Result(all, errors);
+    }
+
+    private static long percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        return sorted[Math.min(sorted.length - 1, (int) Math.ceil(quantile * sorted.length) - 1)];
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1e6;
+    }
+
+    private record Result(long[] latencies, long errors) {
+    }
+}
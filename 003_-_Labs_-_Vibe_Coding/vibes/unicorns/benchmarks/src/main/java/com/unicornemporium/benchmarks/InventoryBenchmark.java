@@ -0,0 +1,86 @@
+package com.unicornemporium.benchmarks;
+
+import com.unicornemporium.service.InventoryService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// Many buyers reserving one unit of the same product at once: InventoryService's striped in-memory
+// counters versus a conditional decrement of the product row. With stock=1000 the product sells
+// out almost immediately, which measures the sold-out path. After every iteration the sold units
+// are checked against the stock, and an oversell fails the run.
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Threads(16)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class InventoryBenchmark {
+    
+    private static final long HOT_PRODUCT_ID = 5;
+    private static final long ROW_LOCK_PRODUCT_ID = 7;
+    
+    @Param({"1000000000", "1000"})
+    long stock;
+    
+    private ConfigurableApplicationContext context;
+    private InventoryService inventoryService;
+    private JdbcTemplate jdbcTemplate;
+    private final LongAdder reserved = new LongAdder();
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BackendContext.start("inventory");
+        inventoryService = context.getBean(InventoryService.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+        // Writes out the stock changes made at startup so a later flush cannot overwrite the row-lock product
+        inventoryService.flush();
+    }
+    
+    @Setup(Level.Iteration)
+    public void restock() {
+        reserved.reset();
+        inventoryService.setStock(HOT_PRODUCT_ID, stock);
+        jdbcTemplate.update("update products set stock = ? where id = ?", stock, ROW_LOCK_PRODUCT_ID);
+    }
+    
+    @TearDown(Level.Iteration)
+    public void checkNoOversell() {
+        long inMemory = inventoryService.getAvailable(HOT_PRODUCT_ID).orElseThrow();
+        Long inRow = jdbcTemplate.queryForObject("select stock from products where id = ?", Long.class, ROW_LOCK_PRODUCT_ID);
+        long sold = reserved.sum();
+        // Only one of the two benchmarks runs per iteration, so the other product still has its full stock
+        long remaining = inMemory + inRow - stock;
+        if (inMemory < 0 || inRow < 0 || remaining + sold != stock) {
+            throw new IllegalStateException("Oversold: stock " + stock + ", sold " + sold + ", remaining " + remaining);
+        }
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+    
+    @Benchmark
+    public boolean stripedCounters() {
+        boolean success = inventoryService.reserve(HOT_PRODUCT_ID, 1);
+        if (success) {
+            reserved.increment();
+        }
+        return success;
+    }
+    
+    @Benchmark
+    public boolean rowLock() {
+        boolean success = jdbcTemplate.update(
+                "update products set stock = stock - 1 where id = ? and stock >= 1", ROW_LOCK_PRODUCT_ID) == 1;
+        if (success) {
+            reserved.increment();
+        }
+        return success;
+    }
+}
@@ -0,0 +1,71 @@
+package com.unicornemporium.benchmarks;
+
+import com.unicornemporium.dto.OrderRequest;
+import com.unicornemporium.dto.OrderResponse;
+import com.unicornemporium.service.OrderService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+// Checkout path: OrderService.createOrder, including pricing, persistence and OrderResponse.fromOrder.
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+// Shorter warmups still trend upwards through the measured iterations on a single CPU
+@Warmup(iterations = 25, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class OrderCreationBenchmark {
+    
+    private static final String[] IDENTITY_IDS = {
+            "--spring.jpa.mapping-resources=META-INF/identity-ids.xml",
+            "--spring.jpa.properties.hibernate.jdbc.batch_size=1",
+            "--spring.jpa.properties.hibernate.order_inserts=false",
+            "--spring.jpa.properties.hibernate.order_updates=false",
+            // The migrations give orders sequence ids, so the file-backed store gets its schema from Hibernate
+            "--spring.flyway.enabled=false",
+            "--spring.jpa.hibernate.ddl-auto=create"
+    };
+    
+    @Param({"1", "10", "100"})
+    int itemCount;
+    
+    // "persistent" writes through to the file-backed H2 database used in production.
+    @Param({"memory", "persistent"})
+    String store;
+    
+    // "pooled" is the current mapping: ids from pooled sequences, inserts sent as JDBC batches.
+    // "identity" is the baseline before that change: IDENTITY ids and no batching.
+    @Param({"pooled", "identity"})
+    String ids;
+    
+    private ConfigurableApplicationContext context;
+    private OrderService orderService;
+    private OrderRequest orderRequest;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = "identity".equals(ids)
+                ? BackendContext.start("order-creation", store, IDENTITY_IDS)
+                : BackendContext.start("order-creation", store);
+        orderService = context.getBean(OrderService.class);
+        orderRequest = BackendContext.orderRequest("buyer@example.com", itemCount);
+    }
+    
+    // Keeps the database from growing across iterations.
+    @TearDown(Level.Iteration)
+    public void clearOrders() {
+        BackendContext.clearOrders(context);
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+    
+    @Benchmark
+    public OrderResponse createOrder() {
+        return orderService.createOrder(orderRequest);
+    }
+}
@@ -0,0 +1,65 @@
+package com.unicornemporium.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.unicornemporium.dto.OrderPage;
+import com.unicornemporium.service.OrderIngestService;
+import com.unicornemporium.service.OrderService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+// Newest-first email lookup for one customer while the orders table grows around it.
+// A million orders with two items each need more than the default heap in the in-memory database.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+// Shorter warmups still trend downwards through the measured iterations
+@Warmup(iterations = 15, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class OrderLookupBenchmark {
+    
+    private static final String CUSTOMER_EMAIL = "repeat.buyer@example.com";
+    private static final int CUSTOMER_ORDERS = 50;
+    // Orders per NDJSON feed handed to the ingest service, to keep the feed and its results small
+    private static final int SEED_FEED_SIZE = 50_000;
+    
+    @Param({"10000", "100000", "1000000"})
+    int tableSize;
+    
+    private ConfigurableApplicationContext context;
+    private OrderService orderService;
+    
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        context = BackendContext.start("order-lookup");
+        orderService = context.getBean(OrderService.class);
+        ObjectMapper objectMapper = context.getBean(ObjectMapper.class);
+        
+        OrderIngestService orderIngestService = context.getBean(OrderIngestService.class);
+        for (int start = 0; start < tableSize; start += SEED_FEED_SIZE) {
+            StringBuilder ndjson = new StringBuilder();
+            for (int i = start; i < Math.min(start + SEED_FEED_SIZE, tableSize); i++) {
+                String email = i % (tableSize / CUSTOMER_ORDERS) == 0 ? CUSTOMER_EMAIL : "buyer" + i + "@example.com";
+                ndjson.append(objectMapper.writeValueAsString(BackendContext.orderRequest(email, 2))).append('\n');
+            }
+            orderIngestService.ingest(new ByteArrayInputStream(ndjson.toString().getBytes(StandardCharsets.UTF_8)),
+                    OutputStream.nullOutputStream());
+        }
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+    
+    @Benchmark
+    public OrderPage ordersByEmail() {
+        return orderService.getOrdersByEmail(CUSTOMER_EMAIL, 0, 20);
+    }
+}
@@ -0,0 +1,114 @@
+package com.unicornemporium.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Time from launching the backend's JVM to its first successful GET /api/products, over fresh
+// processes. Each configuration is started `runs` times against its own in-memory database:
+// the default, the fast-start profile, and, when the jar was built with -Pcds and an
+// application.jsa sits next to it, both again with the class data sharing archive.
+//   args: <executable jar> [runs=5]
+public class StartupTimer {
+
+    private static final Duration TIMEOUT = Duration.ofMinutes(2);
+
+    private record Configuration(String name, List<String> jvmArgs, List<String> appArgs) {
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length == 0) {
+            System.err.println("usage: StartupTimer <executable jar> [runs]");
+            System.exit(2);
+        }
+        Path jar = Path.of(args[0]).toAbsolutePath();
+        int runs = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+        Path archive = jar.resolveSibling("application.jsa");
+
+        List<Configuration> configurations = new ArrayList<>();
+        List<String> fastStart = List.of("--spring.profiles.active=fast-start");
+        configurations.add(new Configuration("default", List.of(), List.of()));
+        configurations.add(new Configuration("fast-start", List.of(), fastStart));
+        if (Files.exists(archive)) {
+            List<String> cds = List.of("-XX:SharedArchiveFile=" + archive, "-Xlog:cds=error");
+            configurations.add(new Configuration("cds", cds, List.of()));
+            configurations.add(new Configuration("cds + fast-start", cds, fastStart));
+        } else {
+            System.out.println("No " + archive + "; build the backend with -Pcds to include the CDS runs");
+        }
+
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+        System.out.printf("%s, %d runs per configuration, time to first request%n", jar.getFileName(), runs);
+        System.out.printf("%-18s %9s %9s %9s%n", "configuration", "min ms", "median ms", "max ms");
+        for (Configuration configuration : configurations) {
+            long[] millis = new long[runs];
+            for (int run = 0; run < runs; run++) {
+                millis[run] = timeToFirstRequest(client, jar, configuration);
+            }
+            Arrays.sort(millis);
+            System.out.printf("%-18s %9d %9d %9d%n", configuration.name(), millis[0], millis[runs / 2], millis[runs - 1]);
+        }
+    }
+
+    private static long timeToFirstRequest(HttpClient client, Path jar, Configuration configuration)
+            throws IOException, InterruptedException {
+        int port = freePort();
+        List<String> command = new ArrayList<>();
+        command.add(ProcessHandle.current().info().command().orElse("java"));
+        command.addAll(configuration.jvmArgs());
+        command.add("-jar");
+        command.add(jar.toString());
+        command.add("--server.port=" + port);
+        command.add("--spring.datasource.url=jdbc:h2:mem:startup");
+        command.addAll(configuration.appArgs());
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/products"))
+                .timeout(TIMEOUT)
+                .build();
+
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command)
+                .directory(jar.getParent().toFile())
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.to(new File(System.getProperty("java.io.tmpdir"), "startup-timer.log")))
+                .start();
+        try {
+            while (System.nanoTime() - start < TIMEOUT.toNanos()) {
+                if (!process.isAlive()) {
+                    throw new IllegalStateException(configuration.name() + " exited with " + process.exitValue()
+                            + "; see " + System.getProperty("java.io.tmpdir") + "/startup-timer.log");
+                }
+                try {
+                    if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                    }
+                } catch (IOException notListeningYet) {
+                    // retry below
+                }
+                Thread.sleep(10);
+            }
+            throw new IllegalStateException(configuration.name() + " did not serve a request within " + TIMEOUT);
+        } finally {
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly().waitFor();
+            }
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.unicornemporium.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.unicornemporium.dto.OrderPage;
+import com.unicornemporium.dto.OrderRequest;
+import com.unicornemporium.model.Product;
+import com.unicornemporium.service.OrderService;
+import com.unicornemporium.service.ProductService;
+import com.unicornemporium.service.WireFormat;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// JSON versus the binary wire formats, all produced from the application's ObjectMapper
+// configuration: encoding the catalog and a page of 50 orders, and decoding an order request.
+// Payload sizes per format are printed once per trial.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class WireFormatBenchmark {
+    
+    @Param({"JSON", "CBOR", "SMILE"})
+    WireFormat format;
+    
+    private ConfigurableApplicationContext context;
+    private ObjectMapper mapper;
+    private List<Product> catalog;
+    private OrderPage orderPage;
+    private byte[] encodedOrderRequest;
+    
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        context = BackendContext.start("wire-format");
+        mapper = format.mapper(context.getBean(ObjectMapper.class));
+        catalog = context.getBean(ProductService.class).getAllProducts();
+        OrderService orderService = context.getBean(OrderService.class);
+        for (int i = 0; i < 50; i++) {
+            orderService.createOrder(BackendContext.orderRequest("buyer" + i + "@example.com", 3));
+        }
+        orderPage = orderService.getOrdersPage(null, 50);
+        encodedOrderRequest = mapper.writeValueAsBytes(BackendContext.orderRequest("buyer@example.com", 3));
+        System.out.printf("%n%s payload bytes: catalog=%d, order page=%d, order request=%d%n", format,
+                mapper.writeValueAsBytes(catalog).length, mapper.writeValueAsBytes(orderPage).length,
+                encodedOrderRequest.length);
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+    
+    @Benchmark
+    public byte[] encodeCatalog() throws IOException {
+        return mapper.writeValueAsBytes(catalog);
+    }
+    
+    @Benchmark
+    public byte[] encodeOrderPage() throws IOException {
+        return mapper.writeValueAsBytes(orderPage);
+    }
+    
+    @Benchmark
+    public OrderRequest decodeOrderRequest() throws IOException {
+        return mapper.readValue(encodedOrderRequest, OrderRequest.class);
+    }
+}
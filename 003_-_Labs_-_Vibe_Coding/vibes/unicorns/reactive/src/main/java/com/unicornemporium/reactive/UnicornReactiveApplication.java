@@ -0,0 +1,12 @@
+package com.unicornemporium.reactive;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+
+@SpringBootApplication
+public class UnicornReactiveApplication {
+
+    public static void main(String[] args) {
+        SpringApplication.run(UnicornReactiveApplication.class, args);
+    }
+}
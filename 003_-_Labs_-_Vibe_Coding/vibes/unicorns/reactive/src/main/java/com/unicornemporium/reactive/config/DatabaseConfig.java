@@ -0,0 +1,41 @@
+package com.unicornemporium.reactive.config;
+
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+// The H2 R2DBC driver runs each statement synchronously on the thread that subscribes, and by
+// default the pool hands a released connection to the next waiting query on the releasing
+// thread. Under load that drains every pending query one after another on a single Netty event
+// loop while its own sockets go unserved. Here connections are handed out on a dedicated
+// scheduler, one thread per pooled connection, so the event loops only do I/O.
+@Configuration
+public class DatabaseConfig {
+
+    @Bean(destroyMethod = "dispose")
+    public Scheduler databaseScheduler(R2dbcProperties properties) {
+        return Schedulers.newBoundedElastic(properties.getPool().getMaxSize(), Integer.MAX_VALUE, "database");
+    }
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionPool connectionFactory(R2dbcProperties properties, Scheduler databaseScheduler) {
+        ConnectionFactoryOptions options = ConnectionFactoryOptions.parse(properties.getUrl()).mutate()
+                .option(ConnectionFactoryOptions.USER, properties.getUsername())
+                .option(ConnectionFactoryOptions.PASSWORD, properties.getPassword())
+                .build();
+        R2dbcProperties.Pool pool = properties.getPool();
+        ConnectionPoolConfiguration configuration = ConnectionPoolConfiguration.builder(ConnectionFactories.get(options))
+                .initialSize(pool.getInitialSize())
+                .maxSize(pool.getMaxSize())
+                .maxIdleTime(pool.getMaxIdleTime())
+                .customizer(builder -> builder.acquisitionScheduler(databaseScheduler))
+                .build();
+        return new ConnectionPool(configuration);
+    }
+}
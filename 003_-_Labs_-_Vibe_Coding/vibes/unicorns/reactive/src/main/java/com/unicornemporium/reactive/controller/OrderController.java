@@ -0,0 +1,58 @@
+package com.unicornemporium.reactive.controller;
+
+import com.unicornemporium.reactive.dto.OrderPage;
+import com.unicornemporium.reactive.dto.OrderRequest;
+import com.unicornemporium.reactive.dto.OrderResponse;
+import com.unicornemporium.reactive.model.Order;
+import com.unicornemporium.reactive.service.OrderService;
+import jakarta.validation.Valid;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@RestController
+@RequestMapping("/api/orders")
+public class OrderController {
+    
+    private final OrderService orderService;
+
+    public OrderController(OrderService orderService) {
+        this.orderService = orderService;
+    }
+    
+    @PostMapping
+    @ResponseStatus(HttpStatus.CREATED)
+    public Mono<OrderResponse> createOrder(@Valid @RequestBody OrderRequest orderRequest) {
+        return orderService.createOrder(orderRequest);
+    }
+    
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<Order>> getOrderById(@PathVariable Long id) {
+        return orderService.getOrderById(id)
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+    
+    @GetMapping
+    public Mono<OrderPage> getAllOrders(@RequestParam(required = false) Long after,
+                                        @RequestParam(defaultValue = "50") int limit) {
+        return orderService.getOrdersPage(after, limit);
+    }
+    
+    // A JSON array by default, or one order per line with Accept: application/x-ndjson. Either
+    // way orders are written as the connection takes them.
+    @GetMapping(value = "/stream", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<Order> streamAllOrders() {
+        return orderService.streamAllOrders();
+    }
+    
+    @GetMapping("/email/{email}")
+    public Mono<OrderPage> getOrdersByEmail(@PathVariable String email,
+                                            @RequestParam(defaultValue = "0") int page,
+                                            @RequestParam(defaultValue = "20") int size) {
+        return orderService.getOrdersByEmail(email, page, size);
+    }
+}
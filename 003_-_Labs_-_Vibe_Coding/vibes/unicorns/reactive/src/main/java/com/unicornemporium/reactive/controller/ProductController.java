@@ -0,0 +1,41 @@
+package com.unicornemporium.reactive.controller;
+
+import com.unicornemporium.reactive.model.Product;
+import com.unicornemporium.reactive.service.ProductService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@RestController
+@RequestMapping("/api/products")
+public class ProductController {
+    
+    private final ProductService productService;
+
+    public ProductController(ProductService productService) {
+        this.productService = productService;
+    }
+    
+    @GetMapping
+    public Flux<Product> getAllProducts() {
+        return productService.getAllProducts();
+    }
+    
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<Product>> getProductById(@PathVariable Long id) {
+        return productService.getProductById(id)
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+    
+    @GetMapping("/category/{category}")
+    public Flux<Product> getProductsByCategory(@PathVariable String category) {
+        return productService.getProductsByCategory(category);
+    }
+    
+    @PostMapping
+    public Mono<Product> createProduct(@RequestBody Product product) {
+        return productService.createProduct(product);
+    }
+}
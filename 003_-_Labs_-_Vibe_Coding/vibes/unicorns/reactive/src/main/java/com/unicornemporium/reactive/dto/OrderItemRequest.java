@@ -0,0 +1,70 @@
+package com.unicornemporium.reactive.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.unicornemporium.reactive.model.Cents;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+
+public class OrderItemRequest {
+    
+    @NotNull(message = "Product ID is required")
+    private Long productId;
+    
+    @NotBlank(message = "Product name is required")
+    private String productName;
+    
+    @NotNull(message = "Quantity is required")
+    @Min(value = 1, message = "Quantity must be at least 1")
+    private Integer quantity;
+    
+    // Ignored: the price is taken from the catalog.
+    @JsonProperty("price")
+    @JsonSerialize(using = Cents.Serializer.class)
+    @JsonDeserialize(using = Cents.Deserializer.class)
+    private Long priceCents;
+
+    public OrderItemRequest() {
+    }
+
+    public OrderItemRequest(Long productId, String productName, Integer quantity, Long priceCents) {
+        this.productId = productId;
+        this.productName = productName;
+        this.quantity = quantity;
+        this.priceCents = priceCents;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public void setProductId(Long productId) {
+        this.productId = productId;
+    }
+
+    public String getProductName() {
+        return productName;
+    }
+
+    public void setProductName(String productName) {
+        this.productName = productName;
+    }
+
+    public Integer getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(Integer quantity) {
+        this.quantity = quantity;
+    }
+
+    public Long getPriceCents() {
+        return priceCents;
+    }
+
+    public void setPriceCents(Long priceCents) {
+        this.priceCents = priceCents;
+    }
+}
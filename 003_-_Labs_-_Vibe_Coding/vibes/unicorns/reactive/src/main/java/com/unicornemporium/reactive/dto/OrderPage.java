@@ -0,0 +1,35 @@
+package com.unicornemporium.reactive.dto;
+
+import com.unicornemporium.reactive.model.Order;
+
+import java.util.List;
+
+public class OrderPage {
+    
+    private List<Order> orders;
+    private Long nextCursor;
+
+    public OrderPage() {
+    }
+
+    public OrderPage(List<Order> orders, Long nextCursor) {
+        this.orders = orders;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<Order> getOrders() {
+        return orders;
+    }
+
+    public void setOrders(List<Order> orders) {
+        this.orders = orders;
+    }
+
+    public Long getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(Long nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+}
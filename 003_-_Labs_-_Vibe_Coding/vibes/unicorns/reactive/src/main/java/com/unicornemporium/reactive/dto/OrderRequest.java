@@ -0,0 +1,98 @@
+package com.unicornemporium.reactive.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.unicornemporium.reactive.model.Cents;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+
+import java.util.List;
+
+public class OrderRequest {
+    
+    @NotBlank(message = "Customer name is required")
+    private String customerName;
+    
+    @NotBlank(message = "Customer email is required")
+    @Email(message = "Invalid email format")
+    private String customerEmail;
+    
+    @NotBlank(message = "Delivery address is required")
+    private String deliveryAddress;
+    
+    @NotBlank(message = "Delivery method is required")
+    private String deliveryMethod;
+    
+    // Ignored: the total is computed server-side from catalog prices.
+    @JsonProperty("totalAmount")
+    @JsonSerialize(using = Cents.Serializer.class)
+    @JsonDeserialize(using = Cents.Deserializer.class)
+    private Long totalAmountCents;
+    
+    @NotEmpty(message = "Order must contain at least one item")
+    @Valid
+    private List<OrderItemRequest> items;
+
+    public OrderRequest() {
+    }
+
+    public OrderRequest(String customerName, String customerEmail, String deliveryAddress, String deliveryMethod, Long totalAmountCents, List<OrderItemRequest> items) {
+        this.customerName = customerName;
+        this.customerEmail = customerEmail;
+        this.deliveryAddress = deliveryAddress;
+        this.deliveryMethod = deliveryMethod;
+        this.totalAmountCents = totalAmountCents;
+        this.items = items;
+    }
+
+    public String getCustomerName() {
+        return customerName;
+    }
+
+    public void setCustomerName(String customerName) {
+        this.customerName = customerName;
+    }
+
+    public String getCustomerEmail() {
+        return customerEmail;
+    }
+
+    public void setCustomerEmail(String customerEmail) {
+        this.customerEmail = customerEmail;
+    }
+
+    public String getDeliveryAddress() {
+        return deliveryAddress;
+    }
+
+    public void setDeliveryAddress(String deliveryAddress) {
+        this.deliveryAddress = deliveryAddress;
+    }
+
+    public String getDeliveryMethod() {
+        return deliveryMethod;
+    }
+
+    public void setDeliveryMethod(String deliveryMethod) {
+        this.deliveryMethod = deliveryMethod;
+    }
+
+    public Long getTotalAmountCents() {
+        return totalAmountCents;
+    }
+
+    public void setTotalAmountCents(Long totalAmountCents) {
+        this.totalAmountCents = totalAmountCents;
+    }
+
+    public List<OrderItemRequest> getItems() {
+        return items;
+    }
+
+    public void setItems(List<OrderItemRequest> items) {
+        this.items = items;
+    }
+}
@@ -0,0 +1,126 @@
+package com.unicornemporium.reactive.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.unicornemporium.reactive.model.Cents;
+import com.unicornemporium.reactive.model.Order;
+
+import java.time.LocalDateTime;
+
+public class OrderResponse {
+    
+    private Long id;
+    private String customerName;
+    private String customerEmail;
+    private String deliveryAddress;
+    private String deliveryMethod;
+    @JsonProperty("totalAmount")
+    @JsonSerialize(using = Cents.Serializer.class)
+    @JsonDeserialize(using = Cents.Deserializer.class)
+    private long totalAmountCents;
+    private LocalDateTime orderDate;
+    private Order.OrderStatus status;
+    private Long version;
+
+    public OrderResponse() {
+    }
+
+    public OrderResponse(Long id, String customerName, String customerEmail, String deliveryAddress, String deliveryMethod, long totalAmountCents, LocalDateTime orderDate, Order.OrderStatus status, Long version) {
+        this.id = id;
+        this.customerName = customerName;
+        this.customerEmail = customerEmail;
+        this.deliveryAddress = deliveryAddress;
+        this.deliveryMethod = deliveryMethod;
+        this.totalAmountCents = totalAmountCents;
+        this.orderDate = orderDate;
+        this.status = status;
+        this.version = version;
+    }
+    
+    public static OrderResponse fromOrder(Order order) {
+        return new OrderResponse(
+            order.getId(),
+            order.getCustomerName(),
+            order.getCustomerEmail(),
+            order.getDeliveryAddress(),
+            order.getDeliveryMethod(),
+            order.getTotalAmountCents(),
+            order.getOrderDate(),
+            order.getStatus(),
+            order.getVersion()
+        );
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getCustomerName() {
+        return customerName;
+    }
+
+    public void setCustomerName(String customerName) {
+        this.customerName = customerName;
+    }
+
+    public String getCustomerEmail() {
+        return customerEmail;
+    }
+
+    public void setCustomerEmail(String customerEmail) {
+        this.customerEmail = customerEmail;
+    }
+
+    public String getDeliveryAddress() {
+        return deliveryAddress;
+    }
+
+    public void setDeliveryAddress(String deliveryAddress) {
+        this.deliveryAddress = deliveryAddress;
+    }
+
+    public String getDeliveryMethod() {
+        return deliveryMethod;
+    }
+
+    public void setDeliveryMethod(String deliveryMethod) {
+        this.deliveryMethod = deliveryMethod;
+    }
+
+    public long getTotalAmountCents() {
+        return totalAmountCents;
+    }
+
+    public void setTotalAmountCents(long totalAmountCents) {
+        this.totalAmountCents = totalAmountCents;
+    }
+
+    public LocalDateTime getOrderDate() {
+        return orderDate;
+    }
+
+    public void setOrderDate(LocalDateTime orderDate) {
+        this.orderDate = orderDate;
+    }
+
+    public Order.OrderStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(Order.OrderStatus status) {
+        this.status = status;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+}
@@ -0,0 +1,53 @@
+package com.unicornemporium.reactive.model;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.exc.InvalidFormatException;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+
+// Money amounts are held as long cents. On the wire they stay decimal numbers with two
+// fraction digits (9999.00), so JSON clients see the same values as before.
+public final class Cents {
+
+    private Cents() {
+    }
+    
+    public static BigDecimal toDecimal(long cents) {
+        return BigDecimal.valueOf(cents, 2);
+    }
+    
+    public static class Serializer extends StdSerializer<Long> {
+        
+        public Serializer() {
+            super(Long.class);
+        }
+
+        @Override
+        public void serialize(Long cents, JsonGenerator generator, SerializerProvider provider) throws IOException {
+            generator.writeNumber(toDecimal(cents));
+        }
+    }
+    
+    public static class Deserializer extends StdDeserializer<Long> {
+        
+        public Deserializer() {
+            super(Long.class);
+        }
+
+        @Override
+        public Long deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+            BigDecimal amount = parser.getDecimalValue();
+            try {
+                return amount.movePointRight(2).longValueExact();
+            } catch (ArithmeticException e) {
+                throw InvalidFormatException.from(parser, "Amount must have at most two decimal places", amount, Long.class);
+            }
+        }
+    }
+}
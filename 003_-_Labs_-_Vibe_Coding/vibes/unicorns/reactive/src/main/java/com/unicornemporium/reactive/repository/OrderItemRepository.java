@@ -0,0 +1,14 @@
+package com.unicornemporium.reactive.repository;
+
+import com.unicornemporium.reactive.model.OrderItem;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+import java.util.Collection;
+
+@Repository
+public interface OrderItemRepository extends R2dbcRepository<OrderItem, Long> {
+    
+    Flux<OrderItem> findByOrderIdInOrderById(Collection<Long> orderIds);
+}
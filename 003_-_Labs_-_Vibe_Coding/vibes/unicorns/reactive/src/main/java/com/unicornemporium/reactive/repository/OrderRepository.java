@@ -0,0 +1,19 @@
+package com.unicornemporium.reactive.repository;
+
+import com.unicornemporium.reactive.model.Order;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+@Repository
+public interface OrderRepository extends R2dbcRepository<Order, Long> {
+    
+    // Keyset page: the next `limit` orders with an id above the cursor.
+    @Query("select * from orders where id > :afterId order by id limit :limit")
+    Flux<Order> findAfter(long afterId, int limit);
+    
+    // Served from the (customer_email, order_date) index.
+    @Query("select * from orders where customer_email = :email order by order_date desc, id desc limit :limit offset :offset")
+    Flux<Order> findByCustomerEmailNewestFirst(String email, int limit, long offset);
+}
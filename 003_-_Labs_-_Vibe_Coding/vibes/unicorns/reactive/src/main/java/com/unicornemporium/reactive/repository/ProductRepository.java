@@ -0,0 +1,12 @@
+package com.unicornemporium.reactive.repository;
+
+import com.unicornemporium.reactive.model.Product;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+@Repository
+public interface ProductRepository extends R2dbcRepository<Product, Long> {
+    
+    Flux<Product> findByCategory(String category);
+}
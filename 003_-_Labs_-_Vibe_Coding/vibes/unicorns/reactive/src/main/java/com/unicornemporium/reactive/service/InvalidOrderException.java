@@ -0,0 +1,12 @@
+package com.unicornemporium.reactive.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class InvalidOrderException extends RuntimeException {
+    
+    public InvalidOrderException(String message) {
+        super(message);
+    }
+}
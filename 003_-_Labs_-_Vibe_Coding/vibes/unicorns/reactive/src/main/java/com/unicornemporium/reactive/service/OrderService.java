@@ -0,0 +1,157 @@
+package com.unicornemporium.reactive.service;
+
+import com.unicornemporium.reactive.dto.OrderItemRequest;
+import com.unicornemporium.reactive.dto.OrderPage;
+import com.unicornemporium.reactive.dto.OrderRequest;
+import com.unicornemporium.reactive.dto.OrderResponse;
+import com.unicornemporium.reactive.model.Order;
+import com.unicornemporium.reactive.model.OrderItem;
+import com.unicornemporium.reactive.model.Product;
+import com.unicornemporium.reactive.repository.OrderItemRepository;
+import com.unicornemporium.reactive.repository.OrderRepository;
+import com.unicornemporium.reactive.repository.ProductRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+@Service
+public class OrderService {
+    
+    private static final int MAX_PAGE_SIZE = 500;
+    private static final int STREAM_CHUNK_SIZE = 100;
+    
+    private final OrderRepository orderRepository;
+    private final OrderItemRepository orderItemRepository;
+    private final ProductRepository productRepository;
+
+    public OrderService(OrderRepository orderRepository, OrderItemRepository orderItemRepository,
+                        ProductRepository productRepository) {
+        this.orderRepository = orderRepository;
+        this.orderItemRepository = orderItemRepository;
+        this.productRepository = productRepository;
+    }
+    
+    // Item names, prices and the order total come from the products table; the names, prices and
+    // total sent by the client are ignored.
+    @Transactional
+    public Mono<OrderResponse> createOrder(OrderRequest orderRequest) {
+        Set<Long> productIds = new LinkedHashSet<>();
+        for (OrderItemRequest itemRequest : orderRequest.getItems()) {
+            productIds.add(itemRequest.getProductId());
+        }
+        return productRepository.findAllById(productIds)
+                .collectMap(Product::getId)
+                .map(products -> toOrder(orderRequest, products))
+                .flatMap(order -> orderRepository.save(order)
+                        .flatMap(saved -> {
+                            for (OrderItem item : order.getItems()) {
+                                item.setOrderId(saved.getId());
+                            }
+                            return orderItemRepository.saveAll(order.getItems()).then(Mono.just(saved));
+                        }))
+                .map(OrderResponse::fromOrder);
+    }
+    
+    private Order toOrder(OrderRequest orderRequest, Map<Long, Product> products) {
+        Order order = new Order();
+        order.setCustomerName(orderRequest.getCustomerName());
+        order.setCustomerEmail(orderRequest.getCustomerEmail());
+        order.setDeliveryAddress(orderRequest.getDeliveryAddress());
+        order.setDeliveryMethod(orderRequest.getDeliveryMethod());
+        order.setOrderDate(LocalDateTime.now());
+        order.setStatus(Order.OrderStatus.PENDING);
+        
+        long totalAmountCents = 0;
+        for (OrderItemRequest itemRequest : orderRequest.getItems()) {
+            Product product = products.get(itemRequest.getProductId());
+            if (product == null) {
+                throw new InvalidOrderException("Unknown product: " + itemRequest.getProductId());
+            }
+            long price = product.getPriceCents();
+            OrderItem orderItem = new OrderItem();
+            orderItem.setProductId(itemRequest.getProductId());
+            orderItem.setProductName(product.getName());
+            orderItem.setQuantity(itemRequest.getQuantity());
+            orderItem.setPriceCents(price);
+            order.getItems().add(orderItem);
+            totalAmountCents = Math.addExact(totalAmountCents, Math.multiplyExact(price, itemRequest.getQuantity()));
+        }
+        order.setTotalAmountCents(totalAmountCents);
+        return order;
+    }
+    
+    public Mono<Order> getOrderById(Long id) {
+        return orderRepository.findById(id)
+                .flatMap(order -> withItems(List.of(order)))
+                .map(orders -> orders.get(0));
+    }
+    
+    // Keyset page: the orders after the cursor, then their items.
+    public Mono<OrderPage> getOrdersPage(Long afterId, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        return orderRepository.findAfter(afterId == null ? 0L : afterId, pageSize)
+                .collectList()
+                .flatMap(this::withItems)
+                .map(orders -> {
+                    Long nextCursor = orders.size() == pageSize ? orders.get(orders.size() - 1).getId() : null;
+                    return new OrderPage(orders, nextCursor);
+                });
+    }
+    
+    // Every order, emitted as the subscriber requests them. Orders are read in keyset pages of
+    // STREAM_CHUNK_SIZE and the items of a whole page are fetched with one query. The next page is
+    // only queried once the previous one has been consumed, and no connection is held in between,
+    // so a slow client neither buffers the table in memory nor pins a pooled connection.
+    public Flux<Order> streamAllOrders() {
+        return nextChunk(0L)
+                .expand(chunk -> chunk.size() < STREAM_CHUNK_SIZE
+                        ? Mono.empty()
+                        : nextChunk(chunk.get(chunk.size() - 1).getId()))
+                .flatMapIterable(Function.identity(), 1);
+    }
+    
+    private Mono<List<Order>> nextChunk(long afterId) {
+        return orderRepository.findAfter(afterId, STREAM_CHUNK_SIZE)
+                .collectList()
+                .flatMap(this::withItems);
+    }
+    
+    // Newest-first page of a customer's orders. The returned cursor is the next page number.
+    public Mono<OrderPage> getOrdersByEmail(String email, int page, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        int pageNumber = Math.max(page, 0);
+        // One extra row tells whether there is a next page
+        return orderRepository.findByCustomerEmailNewestFirst(email, pageSize + 1, (long) pageNumber * pageSize)
+                .collectList()
+                .flatMap(orders -> {
+                    Long nextCursor = orders.size() > pageSize ? (long) pageNumber + 1 : null;
+                    List<Order> content = orders.size() > pageSize ? orders.subList(0, pageSize) : orders;
+                    return withItems(content).map(withItems -> new OrderPage(withItems, nextCursor));
+                });
+    }
+    
+    // Attaches the items of all the given orders, fetched with a single query.
+    private Mono<List<Order>> withItems(List<Order> orders) {
+        if (orders.isEmpty()) {
+            return Mono.just(orders);
+        }
+        Map<Long, Order> byId = new HashMap<>();
+        for (Order order : orders) {
+            byId.put(order.getId(), order);
+            order.setItems(new ArrayList<>());
+        }
+        return orderItemRepository.findByOrderIdInOrderById(byId.keySet())
+                .doOnNext(item -> byId.get(item.getOrderId()).getItems().add(item))
+                .then(Mono.just(orders));
+    }
+}
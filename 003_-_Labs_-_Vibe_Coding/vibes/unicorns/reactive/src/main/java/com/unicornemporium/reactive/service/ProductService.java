@@ -0,0 +1,75 @@
+package com.unicornemporium.reactive.service;
+
+import com.unicornemporium.reactive.model.Product;
+import com.unicornemporium.reactive.repository.ProductRepository;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+@Service
+public class ProductService {
+    
+    private final ProductRepository productRepository;
+    private final DatabaseClient databaseClient;
+
+    public ProductService(ProductRepository productRepository, DatabaseClient databaseClient) {
+        this.productRepository = productRepository;
+        this.databaseClient = databaseClient;
+    }
+    
+    public Flux<Product> getAllProducts() {
+        return withFeatures(productRepository.findAll());
+    }
+    
+    public Mono<Product> getProductById(Long id) {
+        return withFeatures(productRepository.findById(id).flux()).next();
+    }
+    
+    public Flux<Product> getProductsByCategory(String category) {
+        return withFeatures(productRepository.findByCategory(category));
+    }
+    
+    @Transactional
+    public Mono<Product> createProduct(Product product) {
+        List<String> features = product.getFeatures() == null ? List.of() : product.getFeatures();
+        return productRepository.save(product)
+                .flatMap(saved -> Flux.fromIterable(features)
+                        .concatMap(feature -> databaseClient
+                                .sql("insert into product_features (product_id, feature) values (:productId, :feature)")
+                                .bind("productId", saved.getId())
+                                .bind("feature", feature)
+                                .fetch()
+                                .rowsUpdated())
+                        .then(Mono.fromSupplier(() -> {
+                            saved.setFeatures(features);
+                            return saved;
+                        })));
+    }
+    
+    // Attaches features to the products with one query for all of them.
+    private Flux<Product> withFeatures(Flux<Product> products) {
+        return products.collectList().flatMapMany(list -> {
+            if (list.isEmpty()) {
+                return Flux.empty();
+            }
+            List<Long> ids = list.stream().map(Product::getId).toList();
+            return databaseClient.sql("select product_id, feature from product_features where product_id in (:ids)")
+                    .bind("ids", ids)
+                    .map((row, metadata) -> Map.entry(row.get("product_id", Long.class), row.get("feature", String.class)))
+                    .all()
+                    .collectMultimap(Map.Entry::getKey, Map.Entry::getValue)
+                    .flatMapIterable(features -> {
+                        for (Product product : list) {
+                            product.setFeatures(new ArrayList<>(features.getOrDefault(product.getId(), List.of())));
+                        }
+                        return list;
+                    });
+        });
+    }
+}
@@ -0,0 +1,24 @@
+-- The catalog the backend's DataInitializer seeds, with the same ids
+INSERT INTO products (id, name, price_cents, category, image, description) VALUES
+    (1, 'Sparkle Supreme', 999900, 'classic', '🦄', 'A classic white unicorn with a golden horn and the ability to grant wishes'),
+    (2, 'Rainbow Dash', 1299900, 'rainbow', '🌈', 'Creates rainbows wherever it goes. Perfect for parties and special events'),
+    (3, 'Celestial Star', 1599900, 'celestial', '⭐', 'Born from stardust with cosmic powers. Glows beautifully at night'),
+    (4, 'Mystic Moon', 1499900, 'celestial', '🌙', 'Silver-maned beauty with lunar powers. Guards dreams and prevents nightmares'),
+    (5, 'Fire Phoenix', 1899900, 'rare', '🔥', 'Rare fire unicorn with phoenix-like abilities. Can be reborn from flames'),
+    (6, 'Crystal Princess', 1199900, 'classic', '💎', 'Adorned with magical crystals. Her mane sparkles like diamonds'),
+    (7, 'Thunder Strike', 1699900, 'rare', '⚡', 'Commands thunder and lightning. Protects against dark forces'),
+    (8, 'Bubble Bliss', 1099900, 'rainbow', '🫧', 'Creates magical bubbles that carry joy and laughter. Perfect for children'),
+    (9, 'Cherry Blossom', 1399900, 'rainbow', '🌸', 'Spring unicorn that makes flowers bloom. Brings new life wherever she walks');
+
+ALTER TABLE products ALTER COLUMN id RESTART WITH 10;
+
+INSERT INTO product_features (product_id, feature) VALUES
+    (1, 'Wish Granting'), (1, 'Night Vision'), (1, 'Gentle Temperament'),
+    (2, 'Rainbow Creation'), (2, 'Super Speed'), (2, 'Weather Control'),
+    (3, 'Starlight Aura'), (3, 'Teleportation'), (3, 'Cosmic Wisdom'),
+    (4, 'Dream Protection'), (4, 'Moonbeam'), (4, 'Peaceful Presence'),
+    (5, 'Fire Immunity'), (5, 'Rebirth'), (5, 'Heat Generation'),
+    (6, 'Crystal Magic'), (6, 'Healing Powers'), (6, 'Royal Lineage'),
+    (7, 'Lightning Control'), (7, 'Storm Summoning'), (7, 'Electric Speed'),
+    (8, 'Bubble Magic'), (8, 'Joy Aura'), (8, 'Gentle Nature'),
+    (9, 'Flower Growth'), (9, 'Spring Magic'), (9, 'Healing Touch');
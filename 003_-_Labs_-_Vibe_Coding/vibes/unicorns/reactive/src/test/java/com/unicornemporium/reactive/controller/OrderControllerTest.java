@@ -0,0 +1,117 @@
+package com.unicornemporium.reactive.controller;
+
+import com.unicornemporium.reactive.dto.OrderItemRequest;
+import com.unicornemporium.reactive.dto.OrderRequest;
+import com.unicornemporium.reactive.dto.OrderResponse;
+import com.unicornemporium.reactive.model.Order;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// The order API end to end over HTTP: create, read back, keyset paging and the streamed listing.
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.r2dbc.url=r2dbc:h2:mem:///order-controller;DB_CLOSE_DELAY=-1"
+})
+@AutoConfigureWebTestClient
+class OrderControllerTest {
+
+    private static final String EMAIL = "web@example.com";
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    @BeforeEach
+    void setUp() {
+        databaseClient.sql("delete from order_items").then()
+                .then(databaseClient.sql("delete from orders").then())
+                .block();
+    }
+
+    @Test
+    void createdOrderCanBeReadBackAndPaged() {
+        OrderResponse created = createOrder();
+        assertThat(created.getId()).isNotNull();
+        // Priced from the catalog, not from the request
+        assertThat(created.getTotalAmountCents()).isEqualTo(2 * 999900);
+
+        webTestClient.get().uri("/api/orders/{id}", created.getId())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.id").isEqualTo(created.getId())
+                .jsonPath("$.customerEmail").isEqualTo(EMAIL)
+                .jsonPath("$.totalAmount").isEqualTo(19998.0)
+                .jsonPath("$.items.length()").isEqualTo(1)
+                .jsonPath("$.items[0].productName").isEqualTo("Sparkle Supreme");
+
+        long second = createOrder().getId();
+        long third = createOrder().getId();
+
+        webTestClient.get().uri("/api/orders?limit=2")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.orders[*].id").isEqualTo(List.of(created.getId().intValue(), (int) second))
+                .jsonPath("$.nextCursor").isEqualTo(second);
+
+        webTestClient.get().uri("/api/orders?after={cursor}&limit=2", second)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.orders[*].id").isEqualTo(List.of((int) third))
+                .jsonPath("$.nextCursor").doesNotExist();
+    }
+
+    @Test
+    void unknownOrderIsNotFound() {
+        webTestClient.get().uri("/api/orders/{id}", Long.MAX_VALUE)
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    // 350 orders span four 100-row pages of the stream; every order arrives once, in id order,
+    // with its items.
+    @Test
+    void streamReturnsEveryOrderAcrossPages() {
+        for (int i = 0; i < 350; i++) {
+            createOrder();
+        }
+
+        List<Order> streamed = webTestClient.get().uri("/api/orders/stream")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(Order.class)
+                .getResponseBody()
+                .collectList()
+                .block();
+
+        assertThat(streamed).hasSize(350);
+        assertThat(streamed).extracting(Order::getId).isSorted().doesNotHaveDuplicates();
+        assertThat(streamed).allSatisfy(order -> assertThat(order.getItems()).hasSize(1));
+    }
+
+    private OrderResponse createOrder() {
+        OrderRequest request = new OrderRequest("Web Buyer", EMAIL, "1 Rainbow Road", "pegasus", null,
+                List.of(new OrderItemRequest(1L, "Sparkle Supreme", 2, null)));
+        return webTestClient.post().uri("/api/orders")
+                .bodyValue(request)
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody(OrderResponse.class)
+                .returnResult()
+                .getResponseBody();
+    }
+}
@@ -0,0 +1,54 @@
+package com.unicornemporium.reactive.service;
+
+import com.unicornemporium.reactive.dto.OrderItemRequest;
+import com.unicornemporium.reactive.dto.OrderRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+
+// The order stream reads the next 100-row page only when the subscriber asks for more, so an
+// order placed while a slow subscriber is still on the first page is part of the stream.
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "spring.r2dbc.url=r2dbc:h2:mem:///order-stream;DB_CLOSE_DELAY=-1"
+})
+class OrderServiceStreamTest {
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    @BeforeEach
+    void setUp() {
+        databaseClient.sql("delete from order_items").then()
+                .then(databaseClient.sql("delete from orders").then())
+                .block();
+    }
+
+    @Test
+    void pagesAreReadOnDemand() {
+        placeOrders(350);
+
+        StepVerifier.create(orderService.streamAllOrders(), 10)
+                .expectNextCount(10)
+                .then(() -> placeOrders(1))
+                .thenRequest(Long.MAX_VALUE)
+                .expectNextCount(341)
+                .verifyComplete();
+    }
+
+    private void placeOrders(int count) {
+        OrderRequest request = new OrderRequest("Stream Buyer", "stream@example.com", "1 Rainbow Road", "pegasus", null,
+                List.of(new OrderItemRequest(1L, "Sparkle Supreme", 1, null)));
+        Flux.range(0, count)
+                .concatMap(i -> orderService.createOrder(request))
+                .blockLast();
+    }
+}
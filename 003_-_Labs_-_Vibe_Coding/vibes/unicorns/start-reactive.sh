@@ -0,0 +1,13 @@
+#!/bin/bash
+
+echo "🦄 Starting Unicorn Emporium Reactive API..."
+echo ""
+
+cd reactive
+
+echo "🔨 Building application..."
+mvn clean install -DskipTests
+
+echo "🚀 Starting Spring Boot application..."
+mvn spring-boot:run
+